@@ -0,0 +1,173 @@
+package org.stianloader.micromixin.remapper.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.stianloader.micromixin.remapper.IndexedMemberLister;
+import org.stianloader.micromixin.remapper.MemberLister;
+import org.stianloader.micromixin.remapper.MicromixinRemapper;
+
+/**
+ * Shared fixtures for the benchmarks: A small pool of target classes with heavily overloaded methods,
+ * mappings for these classes and representative mixin classes.
+ */
+public final class BenchmarkFixtures {
+
+    @NotNull
+    public static final String CALLBACK_INFO = "L" + MicromixinRemapper.CALLBACK_INFO_CLASS + ";";
+
+    @NotNull
+    public static final String PRIMARY_TARGET = "game/Target";
+
+    @NotNull
+    public static final String SECONDARY_TARGET = "game/OtherTarget";
+
+    @NotNull
+    private static final String @NotNull[] OVERLOAD_DESCRIPTORS = {
+        "()V", "(I)V", "(J)V", "(Ljava/lang/String;)V", "(II)V", "(IJ)V", "(Lgame/Target;)V", "([I)V",
+        "()I", "(I)I", "(Ljava/lang/Object;I)Z", "(DDD)V", "(Lgame/Target;Lgame/OtherTarget;)V"
+    };
+
+    @NotNull
+    private static AnnotationNode annotation(@NotNull String desc, @NotNull Object @NotNull... values) {
+        AnnotationNode annotation = new AnnotationNode(desc);
+        annotation.values = new ArrayList<>(Arrays.asList(values));
+        return annotation;
+    }
+
+    @NotNull
+    public static AnnotationNode createDesc(@NotNull String name, @NotNull Type @NotNull... args) {
+        return BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/injection/Desc;", "value", name, "args", new ArrayList<>(Arrays.asList(args)));
+    }
+
+    @NotNull
+    public static InMemoryMappings createMappings() {
+        InMemoryMappings mappings = new InMemoryMappings();
+        mappings.remapClass(BenchmarkFixtures.PRIMARY_TARGET, "a");
+        mappings.remapClass(BenchmarkFixtures.SECONDARY_TARGET, "b");
+        for (String owner : new String[] {BenchmarkFixtures.PRIMARY_TARGET, BenchmarkFixtures.SECONDARY_TARGET}) {
+            int i = 0;
+            for (String desc : BenchmarkFixtures.OVERLOAD_DESCRIPTORS) {
+                mappings.remapMember(new org.stianloader.remapper.MemberRef(owner, "tick", desc), "a" + i);
+                mappings.remapMember(new org.stianloader.remapper.MemberRef(owner, "helper", desc), "b" + i++);
+            }
+            mappings.remapMember(new org.stianloader.remapper.MemberRef(owner, "counter", "I"), "c");
+        }
+        return mappings;
+    }
+
+    @NotNull
+    public static MemberLister createMemberLister() {
+        List<@NotNull ClassNode> pool = new ArrayList<>();
+        for (String name : new String[] {BenchmarkFixtures.PRIMARY_TARGET, BenchmarkFixtures.SECONDARY_TARGET}) {
+            ClassNode target = new ClassNode();
+            target.name = name;
+            target.superName = "java/lang/Object";
+            for (String desc : BenchmarkFixtures.OVERLOAD_DESCRIPTORS) {
+                target.methods.add(new MethodNode(Opcodes.ACC_PUBLIC, "tick", desc, null, null));
+                target.methods.add(new MethodNode(Opcodes.ACC_PUBLIC, "helper", desc, null, null));
+            }
+            target.fields.add(new FieldNode(Opcodes.ACC_PUBLIC, "counter", "I", null, null));
+            pool.add(target);
+        }
+        return new IndexedMemberLister(pool);
+    }
+
+    /**
+     * Create the class file of a representative mixin class, targeting the given classes.
+     * The mixin makes use of <code>&#64;Shadow</code>, <code>&#64;Overwrite</code>, <code>&#64;Inject</code> with
+     * qualified and unqualified selectors (the latter only if there is a single target), <code>&#64;Redirect</code>, <code>&#64;Desc</code> and
+     * <code>&#64;At("CONSTANT")</code>.
+     *
+     * @param name The internal name of the mixin class.
+     * @param targets The internal names of the target classes.
+     * @return The class file of the mixin.
+     */
+    public static byte @NotNull[] createMixin(@NotNull String name, @NotNull String @NotNull... targets) {
+        ClassNode mixin = new ClassNode();
+        mixin.version = Opcodes.V1_8;
+        mixin.access = Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT;
+        mixin.name = name;
+        mixin.superName = "java/lang/Object";
+
+        List<Type> targetTypes = new ArrayList<>();
+        for (String target : targets) {
+            targetTypes.add(Type.getObjectType(target));
+        }
+        mixin.invisibleAnnotations = new ArrayList<>();
+        mixin.invisibleAnnotations.add(BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/Mixin;", "value", targetTypes));
+
+        FieldNode counter = new FieldNode(Opcodes.ACC_PRIVATE, "counter", "I", null, null);
+        counter.visibleAnnotations = new ArrayList<>();
+        counter.visibleAnnotations.add(BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/Shadow;"));
+        mixin.fields.add(counter);
+
+        MethodNode shadow = BenchmarkFixtures.method(mixin, Opcodes.ACC_ABSTRACT, "helper", "(I)V");
+        shadow.visibleAnnotations.add(BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/Shadow;"));
+
+        MethodNode overwrite = BenchmarkFixtures.method(mixin, Opcodes.ACC_ABSTRACT, "tick", "(J)V");
+        overwrite.visibleAnnotations.add(BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/Overwrite;"));
+
+        for (int i = 0; i < 8; i++) {
+            MethodNode inject = BenchmarkFixtures.method(mixin, Opcodes.ACC_ABSTRACT, "onTick" + i, "(II" + BenchmarkFixtures.CALLBACK_INFO + ")V");
+            // Unqualified string selectors cannot be remapped if the targets are remapped to different owners
+            Object selector = i % 2 == 0 && targets.length == 1 ? "tick" : BenchmarkFixtures.createDesc("tick", Type.INT_TYPE, Type.INT_TYPE);
+            AnnotationNode at = BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/injection/At;", "value", "INVOKE", "target", "Lgame/Target;helper(I)V");
+            inject.visibleAnnotations.add(BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/injection/Inject;",
+                    "method", new ArrayList<>(Arrays.asList(selector)), "at", new ArrayList<>(Arrays.asList(at))));
+        }
+
+        MethodNode redirect = BenchmarkFixtures.method(mixin, Opcodes.ACC_ABSTRACT, "redirectHelper", "(Lgame/Target;I)V");
+        AnnotationNode redirectAt = BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/injection/At;", "value", "INVOKE", "target", "Lgame/Target; helper (I)V");
+        redirect.visibleAnnotations.add(BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/injection/Redirect;",
+                "method", new ArrayList<>(Arrays.asList("Lgame/Target;tick()V")), "at", redirectAt));
+
+        MethodNode constant = BenchmarkFixtures.method(mixin, Opcodes.ACC_ABSTRACT, "onConstant", "(" + BenchmarkFixtures.CALLBACK_INFO + ")V");
+        AnnotationNode constantAt = BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/injection/At;", "value", "CONSTANT", "args", new ArrayList<>(Arrays.asList("classValue=game/Target")));
+        constant.visibleAnnotations.add(BenchmarkFixtures.annotation("Lorg/spongepowered/asm/mixin/injection/Inject;",
+                "method", new ArrayList<>(Arrays.asList("Lgame/Target;tick()V")), "at", new ArrayList<>(Arrays.asList(constantAt))));
+
+        ClassWriter writer = new ClassWriter(0);
+        mixin.accept(writer);
+        return writer.toByteArray();
+    }
+
+    @NotNull
+    private static MethodNode method(@NotNull ClassNode owner, int access, @NotNull String name, @NotNull String desc) {
+        MethodNode method = new MethodNode(Opcodes.ACC_PUBLIC | access, name, desc, null, null);
+        method.visibleAnnotations = new ArrayList<>();
+        owner.methods.add(method);
+        return method;
+    }
+
+    @NotNull
+    public static ClassNode readClass(byte @NotNull[] bytes) {
+        ClassNode node = new ClassNode();
+        new ClassReader(bytes).accept(node, 0);
+        return node;
+    }
+
+    @NotNull
+    public static Collection<@NotNull String> targets(@NotNull String @NotNull... targets) {
+        Set<@NotNull String> set = new LinkedHashSet<>();
+        set.addAll(Arrays.asList(targets));
+        return set;
+    }
+
+    private BenchmarkFixtures() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,27 @@
+package org.stianloader.micromixin.remapper.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entrypoint of the benchmark jar. Runs all benchmarks (or those matching the supplied JMH command line options)
+ * with the GC profiler enabled, so that the allocation rate per operation is reported alongside the time per operation.
+ */
+public final class BenchmarkRunner {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    private BenchmarkRunner() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,74 @@
+package org.stianloader.micromixin.remapper.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.MethodNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.micromixin.remapper.IllegalMixinException;
+import org.stianloader.micromixin.remapper.MicromixinRemapper;
+import org.stianloader.micromixin.remapper.MissingFeatureException;
+import org.stianloader.micromixin.remapper.RemapContext;
+
+/**
+ * Measures the remapping of <code>&#64;Desc</code> selectors, for a mixin with a single target
+ * as well as for a mixin with multiple targets.
+ *
+ * <p>As remapping modifies the annotation in-place, a fresh annotation is created for every invocation.
+ * {@link #createOnly()} measures this overhead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DescAnnotationBenchmark {
+
+    private RemapContext ctx;
+
+    @Param({"false", "true"})
+    public boolean descriptorCache;
+
+    @Param({"1", "2"})
+    public int targetCount;
+
+    @Benchmark
+    public List<Object> createOnly() {
+        return new ArrayList<>(Arrays.asList(BenchmarkFixtures.createDesc("tick", Type.INT_TYPE)));
+    }
+
+    @Benchmark
+    public List<Object> remapDesc() throws IllegalMixinException, MissingFeatureException {
+        List<Object> selectors = new ArrayList<>(Arrays.asList(BenchmarkFixtures.createDesc("tick", Type.INT_TYPE)));
+        this.ctx.remapper.remapMethodSelectorList(this.ctx, selectors, null);
+        return selectors;
+    }
+
+    @Setup
+    public void setup() {
+        MicromixinRemapper remapper = new MicromixinRemapper(BenchmarkFixtures.createMappings(), new InMemoryMappings(), BenchmarkFixtures.createMemberLister());
+        if (this.descriptorCache) {
+            remapper.enableDescriptorCache(1024);
+        }
+        MethodNode handler = new MethodNode(Opcodes.ACC_PUBLIC, "onTick", "(I" + BenchmarkFixtures.CALLBACK_INFO + ")V", null, null);
+        String[] targets = this.targetCount == 1
+                ? new String[] {BenchmarkFixtures.PRIMARY_TARGET}
+                : new String[] {BenchmarkFixtures.PRIMARY_TARGET, BenchmarkFixtures.SECONDARY_TARGET};
+        this.ctx = new RemapContext(remapper, "mixins/TargetMixin", handler, BenchmarkFixtures.targets(targets));
+    }
+}
@@ -0,0 +1,53 @@
+package org.stianloader.micromixin.remapper.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.remapper.MappingLookup;
+import org.stianloader.remapper.MappingSink;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * A minimal {@link HashMap}-backed {@link MappingLookup} and {@link MappingSink} with no hierarchy awareness.
+ * Used as a stand-in for the mapping tables of an actual toolchain.
+ */
+public final class InMemoryMappings implements MappingLookup, MappingSink {
+    @NotNull
+    private final Map<@NotNull String, @NotNull String> classes = new HashMap<>();
+    @NotNull
+    private final Map<@NotNull MemberRef, @NotNull String> members = new HashMap<>();
+
+    @Override
+    @Nullable
+    public String getRemappedClassNameFast(@NotNull String srcName) {
+        return this.classes.get(srcName);
+    }
+
+    @Override
+    @NotNull
+    public String getRemappedFieldName(@NotNull String srcOwner, @NotNull String srcName, @NotNull String srcDesc) {
+        return this.members.getOrDefault(new MemberRef(srcOwner, srcName, srcDesc), srcName);
+    }
+
+    @Override
+    @NotNull
+    public String getRemappedMethodName(@NotNull String srcOwner, @NotNull String srcName, @NotNull String srcDesc) {
+        return this.members.getOrDefault(new MemberRef(srcOwner, srcName, srcDesc), srcName);
+    }
+
+    @Override
+    @NotNull
+    public MappingSink remapClass(@NotNull String srcName, @NotNull String dstName) {
+        this.classes.put(srcName, dstName);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public MappingSink remapMember(@NotNull MemberRef srcRef, @NotNull String dstName) {
+        this.members.put(srcRef, dstName);
+        return this;
+    }
+}
@@ -0,0 +1,51 @@
+package org.stianloader.micromixin.remapper.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.MethodNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.micromixin.remapper.IllegalMixinException;
+import org.stianloader.micromixin.remapper.MicromixinRemapper;
+import org.stianloader.micromixin.remapper.MissingFeatureException;
+import org.stianloader.micromixin.remapper.RemapContext;
+import org.stianloader.micromixin.remapper.element.InjectListTargetElementRemapper;
+
+/**
+ * Measures the resolution of an unqualified <code>&#64;Inject.method</code> selector against a heavily overloaded
+ * target method, which exercises the filtering of candidate descriptors by the handler signature.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectTargetBenchmark {
+
+    private RemapContext ctx;
+
+    @Benchmark
+    public List<?> remapInjectTarget() throws IllegalMixinException, MissingFeatureException {
+        return InjectListTargetElementRemapper.INSTANCE.remapNode(this.ctx, new ArrayList<>(Arrays.asList("tick")));
+    }
+
+    @Setup
+    public void setup() {
+        MicromixinRemapper remapper = new MicromixinRemapper(BenchmarkFixtures.createMappings(), new InMemoryMappings(), BenchmarkFixtures.createMemberLister());
+        MethodNode handler = new MethodNode(Opcodes.ACC_PUBLIC, "onTick", "(II" + BenchmarkFixtures.CALLBACK_INFO + ")V", null, null);
+        this.ctx = new RemapContext(remapper, "mixins/TargetMixin", handler, BenchmarkFixtures.targets(BenchmarkFixtures.PRIMARY_TARGET));
+    }
+}
@@ -0,0 +1,70 @@
+package org.stianloader.micromixin.remapper.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.micromixin.remapper.CachingMemberLister;
+import org.stianloader.micromixin.remapper.IllegalMixinException;
+import org.stianloader.micromixin.remapper.MemberLister;
+import org.stianloader.micromixin.remapper.MicromixinRemapper;
+import org.stianloader.micromixin.remapper.MissingFeatureException;
+
+/**
+ * Measures remapping a representative mixin class as a whole through {@link MicromixinRemapper#remapClass(ClassNode)}.
+ *
+ * <p>As remapping modifies the class in-place, the class is re-read from it's class file for every invocation.
+ * {@link #readOnly()} measures this overhead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemapClassBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cachingLister;
+
+    private byte[] mixin;
+
+    private MicromixinRemapper remapper;
+
+    @Param({"1", "2"})
+    public int targetCount;
+
+    @Benchmark
+    public ClassNode readOnly() {
+        return BenchmarkFixtures.readClass(this.mixin);
+    }
+
+    @Benchmark
+    public ClassNode remapClass() throws IllegalMixinException, MissingFeatureException {
+        ClassNode node = BenchmarkFixtures.readClass(this.mixin);
+        this.remapper.remapClass(node);
+        return node;
+    }
+
+    @Setup
+    public void setup() {
+        MemberLister lister = BenchmarkFixtures.createMemberLister();
+        if (this.cachingLister) {
+            lister = new CachingMemberLister(lister);
+        }
+        this.remapper = new MicromixinRemapper(BenchmarkFixtures.createMappings(), new InMemoryMappings(), lister);
+        this.mixin = this.targetCount == 1
+                ? BenchmarkFixtures.createMixin("mixins/TargetMixin", BenchmarkFixtures.PRIMARY_TARGET)
+                : BenchmarkFixtures.createMixin("mixins/TargetMixin", BenchmarkFixtures.PRIMARY_TARGET, BenchmarkFixtures.SECONDARY_TARGET);
+    }
+}
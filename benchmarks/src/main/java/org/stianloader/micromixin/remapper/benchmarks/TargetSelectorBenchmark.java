@@ -0,0 +1,69 @@
+package org.stianloader.micromixin.remapper.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.MethodNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.micromixin.remapper.IllegalMixinException;
+import org.stianloader.micromixin.remapper.MicromixinRemapper;
+import org.stianloader.micromixin.remapper.MissingFeatureException;
+import org.stianloader.micromixin.remapper.ParsedSelector;
+import org.stianloader.micromixin.remapper.RemapContext;
+
+/**
+ * Measures the parsing and resolution of string target selectors such as <code>&#64;Inject.method</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetSelectorBenchmark {
+
+    private RemapContext ctx;
+
+    private final ParsedSelector parser = new ParsedSelector();
+
+    @Param({"Lgame/Target;tick(I)V", "Lgame/Target; tick (I)V", "tick(I)V", "counter"})
+    public String selector;
+
+    @Param({"false", "true"})
+    public boolean selectorCache;
+
+    @Benchmark
+    public ParsedSelector parseSelector() {
+        return this.parser.parse(this.selector);
+    }
+
+    @Benchmark
+    public List<Object> remapSelector() throws IllegalMixinException, MissingFeatureException {
+        List<Object> selectors = new ArrayList<>(Arrays.asList(this.selector));
+        this.ctx.remapper.remapMethodSelectorList(this.ctx, selectors, null);
+        return selectors;
+    }
+
+    @Setup
+    public void setup() {
+        MicromixinRemapper remapper = new MicromixinRemapper(BenchmarkFixtures.createMappings(), new InMemoryMappings(), BenchmarkFixtures.createMemberLister());
+        if (this.selectorCache) {
+            remapper.enableSelectorCache(1024);
+        }
+        MethodNode handler = new MethodNode(Opcodes.ACC_PUBLIC, "onTick", "(I" + BenchmarkFixtures.CALLBACK_INFO + ")V", null, null);
+        this.ctx = new RemapContext(remapper, "mixins/TargetMixin", handler, BenchmarkFixtures.targets(BenchmarkFixtures.PRIMARY_TARGET));
+    }
+}
@@ -1,6 +1,7 @@
 package org.stianloader.micromixin.remapper;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +11,8 @@ import java.util.function.BiConsumer;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
 import org.stianloader.micromixin.remapper.element.AnnotationElementRemapper;
 import org.stianloader.micromixin.remapper.element.AtArrayElementRemapper;
 import org.stianloader.micromixin.remapper.element.AtElementRemapper;
@@ -20,12 +23,27 @@ import org.stianloader.micromixin.remapper.element.SimpleListTargetElementRemapp
 import org.stianloader.micromixin.remapper.element.SimpleSingleTargetElementRemapper;
 import org.stianloader.micromixin.remapper.element.SliceArrayElementRemapper;
 import org.stianloader.micromixin.remapper.element.SliceElementRemapper;
-
-final class AnnotationRemapper {
-    static final Map<String, AnnotationRemapper> ANNOTATION_REMAPPERS = new HashMap<>();
-
-    static {
-        AnnotationRemapper.ANNOTATION_REMAPPERS.put(
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * A {@link MethodAnnotationHandler} remapping an annotation element by element. Each element of the annotation
+ * is remapped by the {@link AnnotationElementRemapper} registered for the name of the element, where the
+ * <code>with*</code> methods register the element remappers used by common injector annotations. Encountering
+ * an element for which no remapper is registered is an error.
+ *
+ * <p>Instances are configured once, after which they are stateless and may be shared between multiple
+ * {@link MicromixinRemapper} instances and threads.
+ */
+public class AnnotationRemapper implements MethodAnnotationHandler {
+
+    /**
+     * Register the default {@link AnnotationRemapper AnnotationRemappers} for the injector annotations
+     * supported out of the box.
+     *
+     * @param handlers The map of annotation descriptors to handlers to register the remappers in.
+     */
+    static void registerDefaults(@NotNull Map<@NotNull String, @NotNull MethodAnnotationHandler> handlers) {
+        handlers.put(
                 "Lorg/spongepowered/asm/mixin/injection/Inject;",
                 new AnnotationRemapper()
                     .withFrequencyBounds()
@@ -36,7 +54,7 @@ final class AnnotationRemapper {
                     .withInjectListMethodTarget()
         );
 
-        AnnotationRemapper.ANNOTATION_REMAPPERS.put(
+        handlers.put(
                 "Lorg/spongepowered/asm/mixin/injection/ModifyArg;",
                 new AnnotationRemapper()
                     .withFrequencyBounds()
@@ -46,7 +64,7 @@ final class AnnotationRemapper {
                     .withSimpleListMethodTarget()
         );
 
-        AnnotationRemapper.ANNOTATION_REMAPPERS.put(
+        handlers.put(
                 "Lorg/spongepowered/asm/mixin/injection/Redirect;",
                 new AnnotationRemapper()
                     .withFrequencyBounds()
@@ -55,7 +73,7 @@ final class AnnotationRemapper {
                     .withSimpleListMethodTarget()
         );
 
-        AnnotationRemapper.ANNOTATION_REMAPPERS.put(
+        handlers.put(
                 "Lcom/llamalad7/mixinextras/injector/ModifyReturnValue;",
                 new AnnotationRemapper()
                     .withFrequencyBounds()
@@ -64,7 +82,7 @@ final class AnnotationRemapper {
                     .withSimpleListMethodTarget()
         );
 
-        AnnotationRemapper.ANNOTATION_REMAPPERS.put(
+        handlers.put(
                 "Lorg/stianloader/micromixin/annotations/CanonicalOverwrite;",
                 new AnnotationRemapper()
                     .runBefore(ImplicitTargetElementResolver.INSTANCE)
@@ -77,6 +95,15 @@ final class AnnotationRemapper {
     @NotNull
     private final List<@NotNull BiConsumer<@NotNull RemapContext, @NotNull AnnotationNode>> runBefores = new ArrayList<>();
 
+    /**
+     * Remap all elements of the annotation in-place, after running all actions registered through
+     * {@link #runBefore(BiConsumer)}.
+     *
+     * @param ctx The context of the annotated mixin method.
+     * @param annotation The annotation to remap.
+     * @throws MissingFeatureException Thrown due to {@link MicromixinRemapper#logUnimplementedFeature(String)}.
+     * @throws IllegalMixinException Thrown if the annotation is illegal.
+     */
     public final void remapAnnotation(@NotNull RemapContext ctx, @NotNull AnnotationNode annotation) throws MissingFeatureException, IllegalMixinException {
         for (BiConsumer<@NotNull RemapContext, @NotNull AnnotationNode> runBefore : this.runBefores) {
             runBefore.accept(ctx, annotation);
@@ -97,6 +124,12 @@ final class AnnotationRemapper {
         }
     }
 
+    @Override
+    public void remapMethodAnnotation(@NotNull MicromixinRemapper remapper, @NotNull ClassNode node, @NotNull MethodNode method,
+            @NotNull AnnotationNode annotation, @NotNull Collection<@NotNull String> targets, @NotNull MappingSink sink) throws IllegalMixinException, MissingFeatureException {
+        this.remapAnnotation(new RemapContext(remapper, node.name, method, targets), annotation);
+    }
+
     @NotNull
     @Contract(pure = false, mutates = "this", value = "null -> fail; !null -> this")
     public AnnotationRemapper runBefore(@NotNull BiConsumer<@NotNull RemapContext, @NotNull AnnotationNode> runBefore) {
@@ -104,6 +137,13 @@ final class AnnotationRemapper {
         return this;
     }
 
+    @NotNull
+    @Contract(pure = false, mutates = "this", value = "_, null -> fail; null, _ -> fail; _, _ -> this")
+    public AnnotationRemapper withElement(@NotNull String elementName, @NotNull AnnotationElementRemapper<?> remapper) {
+        this.elementRemappers.put(Objects.requireNonNull(elementName, "Supplied argument 'elementName' may not be null."), Objects.requireNonNull(remapper, "Supplied argument 'remapper' may not be null."));
+        return this;
+    }
+
     @NotNull
     @Contract(pure = false, mutates = "this", value = "-> this")
     public AnnotationRemapper withFrequencyBounds() {
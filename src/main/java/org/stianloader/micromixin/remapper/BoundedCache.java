@@ -0,0 +1,60 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A thread-safe cache which holds at most a fixed amount of entries. Once the cache grows beyond
+ * it's maximum size, the oldest entries are evicted (first-in, first-out). The bound is not enforced
+ * strictly while multiple threads are inserting entries at the same time, but the cache will not grow
+ * significantly beyond it's maximum size.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the cached values
+ */
+final class BoundedCache<K, V> {
+    @NotNull
+    private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>();
+    @NotNull
+    private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maximumSize;
+
+    public BoundedCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of the cache must be positive, but was " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    public void clear() {
+        this.entries.clear();
+        this.insertionOrder.clear();
+    }
+
+    @Nullable
+    public V get(@NotNull K key) {
+        return this.entries.get(key);
+    }
+
+    public void put(@NotNull K key, @NotNull V value) {
+        if (this.entries.putIfAbsent(key, value) != null) {
+            return;
+        }
+        this.insertionOrder.add(key);
+        while (this.entries.size() > this.maximumSize) {
+            K eldest = this.insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            this.entries.remove(eldest);
+        }
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+}
@@ -0,0 +1,137 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.stianloader.remapper.MappingSink;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * A {@link MappingSink} which records all mapping requests in the order they were emitted
+ * so that they can be replayed on another {@link MappingSink} at a later point in time.
+ *
+ * <p>Instances of this class are not thread-safe and are meant to be confined to the thread
+ * remapping a single mixin class.
+ */
+final class BufferedMappingSink implements MappingSink {
+    /**
+     * The minimum amount of bytes a single mapping request occupies in the format of {@link #write(DataOutput)}.
+     */
+    static final int MINIMUM_REQUEST_SIZE = 5;
+
+    /**
+     * Read mapping requests previously written through {@link #write(DataOutput)}.
+     *
+     * @param in The input to read the requests from.
+     * @return A {@link BufferedMappingSink} containing the read requests.
+     * @throws IOException If the requests could not be read.
+     */
+    @NotNull
+    static BufferedMappingSink read(@NotNull DataInput in) throws IOException {
+        return BufferedMappingSink.read(in, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Read mapping requests previously written through {@link #write(DataOutput)}, rejecting inputs that claim to
+     * contain more than the given amount of requests.
+     *
+     * @param in The input to read the requests from.
+     * @param maximumCount The maximum amount of requests that may be read.
+     * @return A {@link BufferedMappingSink} containing the read requests.
+     * @throws IOException If the requests could not be read or their amount is negative or exceeds the maximum.
+     */
+    @NotNull
+    static BufferedMappingSink read(@NotNull DataInput in, int maximumCount) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > maximumCount) {
+            throw new IOException("Invalid amount of mapping requests: " + count);
+        }
+        BufferedMappingSink requests = new BufferedMappingSink();
+        for (int i = count; i > 0; i--) {
+            if (in.readBoolean()) {
+                requests.remapMember(new MemberRef(in.readUTF(), in.readUTF(), in.readUTF()), in.readUTF());
+            } else {
+                requests.remapClass(in.readUTF(), in.readUTF());
+            }
+        }
+        return requests;
+    }
+
+    @NotNull
+    private final List<@NotNull Object> requests = new ArrayList<>();
+
+    /**
+     * Replay all recorded mapping requests in the order they were emitted.
+     *
+     * @param sink The {@link MappingSink} to emit the recorded mapping requests to.
+     */
+    public void flush(@NotNull MappingSink sink) {
+        for (int i = 0; i < this.requests.size(); i += 2) {
+            Object src = this.requests.get(i);
+            String dstName = (String) this.requests.get(i + 1);
+            assert dstName != null;
+            if (src instanceof MemberRef) {
+                sink.remapMember((MemberRef) src, dstName);
+            } else {
+                sink.remapClass((String) src, dstName);
+            }
+        }
+    }
+
+    /**
+     * Obtain all recorded mapping requests. Requests are stored as pairs of elements, where the first element
+     * is either the {@link MemberRef} of a member or the name of a class and the second element is the
+     * destination name.
+     *
+     * @return An unmodifiable view of the recorded mapping requests.
+     */
+    @NotNull
+    List<@NotNull Object> getRequests() {
+        return Collections.unmodifiableList(this.requests);
+    }
+
+    @Override
+    @NotNull
+    public MappingSink remapClass(@NotNull String srcName, @NotNull String dstName) {
+        this.requests.add(srcName);
+        this.requests.add(dstName);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public MappingSink remapMember(@NotNull MemberRef srcRef, @NotNull String dstName) {
+        this.requests.add(srcRef);
+        this.requests.add(dstName);
+        return this;
+    }
+
+    /**
+     * Write all recorded mapping requests in the order they were emitted.
+     *
+     * @param out The output to write the requests to.
+     * @throws IOException If the requests could not be written.
+     */
+    void write(@NotNull DataOutput out) throws IOException {
+        out.writeInt(this.requests.size() / 2);
+        for (int i = 0; i < this.requests.size(); i += 2) {
+            Object src = this.requests.get(i);
+            if (src instanceof MemberRef) {
+                MemberRef ref = (MemberRef) src;
+                out.writeBoolean(true);
+                out.writeUTF(ref.getOwner());
+                out.writeUTF(ref.getName());
+                out.writeUTF(ref.getDesc());
+            } else {
+                out.writeBoolean(false);
+                out.writeUTF((String) src);
+            }
+            out.writeUTF((String) this.requests.get(i + 1));
+        }
+    }
+}
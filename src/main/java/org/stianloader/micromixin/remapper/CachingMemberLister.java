@@ -0,0 +1,258 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * A {@link MemberLister} decorator which caches the results of {@link #hasMemberInHierarchy(String, String, String)}
+ * and {@link #tryInferMember(String, String, String)}. The same queries are issued many times over the course of
+ * remapping a set of mixins (for example for every alias or target of a <code>&#64;Shadow</code>), so caching them
+ * is especially useful if the underlying {@link MemberLister} is expensive to query.
+ *
+ * <p>The caches are thread-safe and bounded in size. Once a cache exceeds it's maximum size, the oldest entries are
+ * evicted. Negative results (that is <code>false</code> for {@link #hasMemberInHierarchy(String, String, String)} or an
+ * empty collection for {@link #tryInferMember(String, String, String)}) are only cached if explicitly requested, as
+ * usually negative results are far more numerous than positive results.
+ *
+ * <p>The bulk queries {@link #filterMemberInHierarchy(Collection, String, String)} and
+ * {@link #tryInferMembers(Collection, String, String)} share the caches of their single-class counterparts.
+ * Only the classes that are not yet cached are forwarded to the delegate, using a single bulk query.
+ *
+ * <p>{@link #getReportedClassMembers(String)} is not cached as it is only used for diagnostic purposes.
+ *
+ * <p>This decorator assumes that the delegate {@link MemberLister} answers the same query in the same way
+ * over the lifetime of the cache. If the underlying data changes, {@link #clear()} needs to be called.
+ */
+public class CachingMemberLister implements MemberLister {
+
+    private static final class QueryKey {
+        @NotNull
+        private final String owner;
+        @Nullable
+        private final String name;
+        @Nullable
+        private final String desc;
+        private final int hash;
+
+        private QueryKey(@NotNull String owner, @Nullable String name, @Nullable String desc) {
+            this.owner = owner;
+            this.name = name;
+            this.desc = desc;
+            this.hash = (owner.hashCode() * 31 + Objects.hashCode(name)) * 31 + Objects.hashCode(desc);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey other = (QueryKey) obj;
+            return this.hash == other.hash
+                    && this.owner.equals(other.owner)
+                    && Objects.equals(this.name, other.name)
+                    && Objects.equals(this.desc, other.desc);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * The default maximum amount of entries per cache, used by {@link #CachingMemberLister(MemberLister)}.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 16384;
+
+    private final boolean cacheNegativeResults;
+    @NotNull
+    private final MemberLister delegate;
+    @NotNull
+    private final BoundedCache<@NotNull QueryKey, @NotNull Boolean> hierarchyCache;
+    @NotNull
+    private final LongAdder hits = new LongAdder();
+    @NotNull
+    private final BoundedCache<@NotNull QueryKey, @NotNull Collection<MemberRef>> inferenceCache;
+    @NotNull
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor. Creates a {@link CachingMemberLister} which holds up to {@link #DEFAULT_MAXIMUM_SIZE}
+     * entries per cache and does not cache negative results.
+     *
+     * @param delegate The {@link MemberLister} to query on cache misses.
+     */
+    public CachingMemberLister(@NotNull MemberLister delegate) {
+        this(delegate, CachingMemberLister.DEFAULT_MAXIMUM_SIZE, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The {@link MemberLister} to query on cache misses.
+     * @param maximumSize The maximum amount of entries held by each cache. Must be positive.
+     * @param cacheNegativeResults Whether negative results should be cached too.
+     */
+    public CachingMemberLister(@NotNull MemberLister delegate, int maximumSize, boolean cacheNegativeResults) {
+        this.delegate = Objects.requireNonNull(delegate, "Supplied argument 'delegate' may not be null.");
+        this.hierarchyCache = new BoundedCache<>(maximumSize);
+        this.inferenceCache = new BoundedCache<>(maximumSize);
+        this.cacheNegativeResults = cacheNegativeResults;
+    }
+
+    @NotNull
+    private Collection<MemberRef> cacheInference(@NotNull QueryKey key, @NotNull Collection<MemberRef> result) {
+        if (result.isEmpty()) {
+            result = Collections.emptyList();
+            if (this.cacheNegativeResults) {
+                this.inferenceCache.put(key, result);
+            }
+        } else {
+            result = Collections.unmodifiableList(new ArrayList<>(result));
+            this.inferenceCache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Discard all cached entries. The hit and miss counters are not reset.
+     */
+    public void clear() {
+        this.hierarchyCache.clear();
+        this.inferenceCache.clear();
+    }
+
+    @Override
+    @NotNull
+    public Collection<@NotNull String> filterMemberInHierarchy(@NotNull Collection<@NotNull String> classes, @NotNull String name, @NotNull String desc) {
+        Map<@NotNull String, @NotNull Boolean> results = new LinkedHashMap<>();
+        List<@NotNull String> uncached = new ArrayList<>();
+        for (String clazz : classes) {
+            Boolean cached = this.hierarchyCache.get(new QueryKey(clazz, name, desc));
+            if (cached != null) {
+                this.hits.increment();
+                results.put(clazz, cached);
+            } else {
+                this.misses.increment();
+                results.put(clazz, Boolean.FALSE);
+                uncached.add(clazz);
+            }
+        }
+
+        if (!uncached.isEmpty()) {
+            Collection<@NotNull String> matches = this.delegate.filterMemberInHierarchy(uncached, name, desc);
+            for (String clazz : matches) {
+                results.put(clazz, Boolean.TRUE);
+                this.hierarchyCache.put(new QueryKey(clazz, name, desc), Boolean.TRUE);
+            }
+            if (this.cacheNegativeResults) {
+                for (String clazz : uncached) {
+                    if (!matches.contains(clazz)) {
+                        this.hierarchyCache.put(new QueryKey(clazz, name, desc), Boolean.FALSE);
+                    }
+                }
+            }
+        }
+
+        List<@NotNull String> filtered = new ArrayList<>(results.size());
+        for (Map.Entry<@NotNull String, @NotNull Boolean> entry : results.entrySet()) {
+            if (entry.getValue()) {
+                filtered.add(entry.getKey());
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Obtain the amount of queries that could be answered using the cache.
+     *
+     * @return The amount of cache hits.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Obtain the amount of queries that had to be delegated to the underlying {@link MemberLister}.
+     *
+     * @return The amount of cache misses.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    @Override
+    @Nullable
+    public Collection<MemberRef> getReportedClassMembers(@NotNull String owner) throws UnsupportedOperationException {
+        return this.delegate.getReportedClassMembers(owner);
+    }
+
+    @Override
+    public boolean hasMemberInHierarchy(@NotNull String clazz, @NotNull String name, @NotNull String desc) {
+        QueryKey key = new QueryKey(clazz, name, desc);
+        Boolean cached = this.hierarchyCache.get(key);
+        if (cached != null) {
+            this.hits.increment();
+            return cached;
+        }
+
+        this.misses.increment();
+        boolean result = this.delegate.hasMemberInHierarchy(clazz, name, desc);
+        if (result || this.cacheNegativeResults) {
+            this.hierarchyCache.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    @NotNull
+    public Collection<MemberRef> tryInferMember(@NotNull String owner, @Nullable String name, @Nullable String desc) {
+        QueryKey key = new QueryKey(owner, name, desc);
+        Collection<MemberRef> cached = this.inferenceCache.get(key);
+        if (cached != null) {
+            this.hits.increment();
+            return cached;
+        }
+
+        this.misses.increment();
+        return this.cacheInference(key, this.delegate.tryInferMember(owner, name, desc));
+    }
+
+    @Override
+    @NotNull
+    public Map<@NotNull String, @NotNull Collection<MemberRef>> tryInferMembers(@NotNull Collection<@NotNull String> owners, @Nullable String name, @Nullable String desc) {
+        Map<@NotNull String, @NotNull Collection<MemberRef>> results = new LinkedHashMap<>();
+        List<@NotNull String> uncached = new ArrayList<>();
+        for (String owner : owners) {
+            Collection<MemberRef> cached = this.inferenceCache.get(new QueryKey(owner, name, desc));
+            if (cached != null) {
+                this.hits.increment();
+                results.put(owner, cached);
+            } else {
+                this.misses.increment();
+                results.put(owner, Collections.emptyList());
+                uncached.add(owner);
+            }
+        }
+
+        if (!uncached.isEmpty()) {
+            Map<@NotNull String, @NotNull Collection<MemberRef>> inferred = this.delegate.tryInferMembers(uncached, name, desc);
+            for (String owner : uncached) {
+                Collection<MemberRef> result = inferred.get(owner);
+                results.put(owner, this.cacheInference(new QueryKey(owner, name, desc), result == null ? Collections.emptyList() : result));
+            }
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,48 @@
+package org.stianloader.micromixin.remapper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.remapper.MappingLookup;
+
+/**
+ * A {@link MappingLookup} decorator notifying a {@link RemapMetricsListener} about every query.
+ */
+final class CountingMappingLookup implements MappingLookup {
+    @NotNull
+    private final MappingLookup delegate;
+    @NotNull
+    private final RemapMetricsListener listener;
+
+    CountingMappingLookup(@NotNull MappingLookup delegate, @NotNull RemapMetricsListener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    @NotNull
+    public String getRemappedClassName(@NotNull String srcName) {
+        this.listener.onLookupQuery();
+        return this.delegate.getRemappedClassName(srcName);
+    }
+
+    @Override
+    @Nullable
+    public String getRemappedClassNameFast(@NotNull String srcName) {
+        this.listener.onLookupQuery();
+        return this.delegate.getRemappedClassNameFast(srcName);
+    }
+
+    @Override
+    @NotNull
+    public String getRemappedFieldName(@NotNull String srcOwner, @NotNull String srcName, @NotNull String srcDesc) {
+        this.listener.onLookupQuery();
+        return this.delegate.getRemappedFieldName(srcOwner, srcName, srcDesc);
+    }
+
+    @Override
+    @NotNull
+    public String getRemappedMethodName(@NotNull String srcOwner, @NotNull String srcName, @NotNull String srcDesc) {
+        this.listener.onLookupQuery();
+        return this.delegate.getRemappedMethodName(srcOwner, srcName, srcDesc);
+    }
+}
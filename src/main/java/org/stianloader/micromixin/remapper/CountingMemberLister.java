@@ -0,0 +1,56 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * A {@link MemberLister} decorator notifying a {@link RemapMetricsListener} about every query.
+ */
+final class CountingMemberLister implements MemberLister {
+    @NotNull
+    private final MemberLister delegate;
+    @NotNull
+    private final RemapMetricsListener listener;
+
+    CountingMemberLister(@NotNull MemberLister delegate, @NotNull RemapMetricsListener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    @NotNull
+    public Collection<@NotNull String> filterMemberInHierarchy(@NotNull Collection<@NotNull String> classes, @NotNull String name, @NotNull String desc) {
+        this.listener.onHierarchyQuery();
+        return this.delegate.filterMemberInHierarchy(classes, name, desc);
+    }
+
+    @Override
+    @Nullable
+    public Collection<MemberRef> getReportedClassMembers(@NotNull String owner) throws UnsupportedOperationException {
+        return this.delegate.getReportedClassMembers(owner);
+    }
+
+    @Override
+    public boolean hasMemberInHierarchy(@NotNull String clazz, @NotNull String name, @NotNull String desc) {
+        this.listener.onHierarchyQuery();
+        return this.delegate.hasMemberInHierarchy(clazz, name, desc);
+    }
+
+    @Override
+    @NotNull
+    public Collection<MemberRef> tryInferMember(@NotNull String owner, @Nullable String name, @Nullable String desc) {
+        this.listener.onInferenceQuery();
+        return this.delegate.tryInferMember(owner, name, desc);
+    }
+
+    @Override
+    @NotNull
+    public Map<@NotNull String, @NotNull Collection<MemberRef>> tryInferMembers(@NotNull Collection<@NotNull String> owners, @Nullable String name, @Nullable String desc) {
+        this.listener.onInferenceQuery();
+        return this.delegate.tryInferMembers(owners, name, desc);
+    }
+}
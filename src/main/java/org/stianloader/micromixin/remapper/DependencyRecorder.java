@@ -0,0 +1,88 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * Records the source namespace classes and members whose mappings a single mixin class depends on. The recorder
+ * is bound to the remapping thread for the duration of the remapping process and is fed by the
+ * {@link DependencyRecordingLookup}, which sees every mapping query issued while remapping the class.
+ *
+ * <p>Once the class was remapped, the recorder is handed to the {@link MixinDependencyIndex} and is no longer
+ * modified. Until then, instances of this class are confined to the thread remapping the class.
+ */
+final class DependencyRecorder {
+
+    @NotNull
+    private static final ThreadLocal<DependencyRecorder> ACTIVE = new ThreadLocal<>();
+
+    /**
+     * Obtain the recorder bound to the current thread.
+     *
+     * @return The active recorder, or null if the dependencies of the current thread are not recorded.
+     */
+    @Nullable
+    static DependencyRecorder getActive() {
+        return DependencyRecorder.ACTIVE.get();
+    }
+
+    @NotNull
+    final Set<@NotNull String> classes = new HashSet<>();
+    @NotNull
+    final Set<@NotNull MemberRef> fields = new HashSet<>();
+    @NotNull
+    final Set<@NotNull MemberRef> methods = new HashSet<>();
+    @Nullable
+    private DependencyRecorder previous;
+
+    /**
+     * Bind this recorder to the current thread. Every call must be followed by a call to {@link #deactivate()}.
+     */
+    void activate() {
+        this.previous = DependencyRecorder.ACTIVE.get();
+        DependencyRecorder.ACTIVE.set(this);
+    }
+
+    /**
+     * Unbind this recorder from the current thread, restoring the previously bound recorder.
+     */
+    void deactivate() {
+        if (this.previous == null) {
+            DependencyRecorder.ACTIVE.remove();
+        } else {
+            DependencyRecorder.ACTIVE.set(this.previous);
+            this.previous = null;
+        }
+    }
+
+    void recordClass(@NotNull String name) {
+        this.classes.add(name);
+    }
+
+    /**
+     * Record the classes referenced by a field or method descriptor. Used where the remapped descriptor is obtained
+     * without querying the {@link org.stianloader.remapper.MappingLookup}, for example from a cache.
+     *
+     * @param desc The descriptor in the source namespace.
+     */
+    void recordDescriptor(@NotNull String desc) {
+        int start = desc.indexOf('L');
+        while (start >= 0) {
+            int end = desc.indexOf(';', start);
+            this.classes.add(desc.substring(start + 1, end));
+            start = desc.indexOf('L', end);
+        }
+    }
+
+    void recordField(@NotNull String owner, @NotNull String name, @NotNull String desc) {
+        this.fields.add(new MemberRef(owner, name, desc));
+    }
+
+    void recordMethod(@NotNull String owner, @NotNull String name, @NotNull String desc) {
+        this.methods.add(new MemberRef(owner, name, desc));
+    }
+}
@@ -0,0 +1,57 @@
+package org.stianloader.micromixin.remapper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.remapper.MappingLookup;
+
+/**
+ * A {@link MappingLookup} decorator reporting every query to the {@link DependencyRecorder} bound to the current thread.
+ */
+final class DependencyRecordingLookup implements MappingLookup {
+    @NotNull
+    private final MappingLookup delegate;
+
+    DependencyRecordingLookup(@NotNull MappingLookup delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @NotNull
+    public String getRemappedClassName(@NotNull String srcName) {
+        DependencyRecorder recorder = DependencyRecorder.getActive();
+        if (recorder != null) {
+            recorder.recordClass(srcName);
+        }
+        return this.delegate.getRemappedClassName(srcName);
+    }
+
+    @Override
+    @Nullable
+    public String getRemappedClassNameFast(@NotNull String srcName) {
+        DependencyRecorder recorder = DependencyRecorder.getActive();
+        if (recorder != null) {
+            recorder.recordClass(srcName);
+        }
+        return this.delegate.getRemappedClassNameFast(srcName);
+    }
+
+    @Override
+    @NotNull
+    public String getRemappedFieldName(@NotNull String srcOwner, @NotNull String srcName, @NotNull String srcDesc) {
+        DependencyRecorder recorder = DependencyRecorder.getActive();
+        if (recorder != null) {
+            recorder.recordField(srcOwner, srcName, srcDesc);
+        }
+        return this.delegate.getRemappedFieldName(srcOwner, srcName, srcDesc);
+    }
+
+    @Override
+    @NotNull
+    public String getRemappedMethodName(@NotNull String srcOwner, @NotNull String srcName, @NotNull String srcDesc) {
+        DependencyRecorder recorder = DependencyRecorder.getActive();
+        if (recorder != null) {
+            recorder.recordMethod(srcOwner, srcName, srcDesc);
+        }
+        return this.delegate.getRemappedMethodName(srcOwner, srcName, srcDesc);
+    }
+}
@@ -0,0 +1,101 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.micromixin.remapper.RemapDiagnostic.Kind;
+
+/**
+ * Collects the {@link RemapDiagnostic diagnostics} of a single mixin class while it is being remapped in the
+ * collecting mode. The collector is bound to the remapping thread for the duration of the remapping process,
+ * which allows {@link MicromixinRemapper#logUnimplementedFeature(String)} and the exception types of the remapper
+ * to behave accordingly without having to pass the collector around.
+ *
+ * <p>Instances of this class are confined to the thread remapping the class.
+ */
+final class DiagnosticCollector {
+
+    @NotNull
+    private static final ThreadLocal<DiagnosticCollector> ACTIVE = new ThreadLocal<>();
+
+    /**
+     * Obtain the collector bound to the current thread.
+     *
+     * @return The active collector, or null if the current thread is not remapping in the collecting mode.
+     */
+    @Nullable
+    static DiagnosticCollector getActive() {
+        return DiagnosticCollector.ACTIVE.get();
+    }
+
+    @Nullable
+    private String annotationDesc;
+    @NotNull
+    private final String className;
+    @NotNull
+    private final List<@NotNull RemapDiagnostic> diagnostics = new ArrayList<>();
+    @Nullable
+    private String memberDesc;
+    @Nullable
+    private String memberName;
+    @Nullable
+    private DiagnosticCollector previous;
+
+    DiagnosticCollector(@NotNull String className) {
+        this.className = className;
+    }
+
+    /**
+     * Bind this collector to the current thread. Every call must be followed by a call to {@link #deactivate()}.
+     */
+    void activate() {
+        this.previous = DiagnosticCollector.ACTIVE.get();
+        DiagnosticCollector.ACTIVE.set(this);
+    }
+
+    /**
+     * Unbind this collector from the current thread, restoring the previously bound collector.
+     */
+    void deactivate() {
+        if (this.previous == null) {
+            DiagnosticCollector.ACTIVE.remove();
+        } else {
+            DiagnosticCollector.ACTIVE.set(this.previous);
+            this.previous = null;
+        }
+    }
+
+    @NotNull
+    List<@NotNull RemapDiagnostic> getDiagnostics() {
+        return this.diagnostics;
+    }
+
+    void report(@NotNull Exception problem) {
+        if (problem instanceof IllegalMixinException) {
+            this.report(Kind.ILLEGAL_MIXIN, String.valueOf(problem.getMessage()));
+        } else if (problem instanceof MissingFeatureException) {
+            this.report(Kind.MISSING_FEATURE, String.valueOf(problem.getMessage()));
+        } else {
+            this.report(Kind.UNEXPECTED_EXCEPTION, problem.toString());
+        }
+    }
+
+    void report(@NotNull Kind kind, @NotNull String message) {
+        this.diagnostics.add(new RemapDiagnostic(kind, this.className, this.memberName, this.memberDesc, this.annotationDesc, message));
+    }
+
+    /**
+     * Set the location that is attached to diagnostics reported from now on.
+     *
+     * @param memberName The name of the mixin member that is being remapped, or null for the class itself.
+     * @param memberDesc The descriptor of the mixin member that is being remapped, or null for the class itself.
+     * @param annotationDesc The descriptor of the annotation that is being remapped, or null.
+     */
+    void setLocation(@Nullable String memberName, @Nullable String memberDesc, @Nullable String annotationDesc) {
+        this.memberName = memberName;
+        this.memberDesc = memberDesc;
+        this.annotationDesc = annotationDesc;
+    }
+}
@@ -1,6 +1,7 @@
 package org.stianloader.micromixin.remapper;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * An exception that is thrown whenever an aspect is encountered that would be illegal for any
@@ -22,4 +23,31 @@ public class IllegalMixinException extends Exception {
     public IllegalMixinException(@NotNull String detailMessage) {
         super(detailMessage);
     }
+
+    /**
+     * Constructor. Creates an {@link Exception} with the supplied detail message and cause.
+     *
+     * @param detailMessage The detail message to pass to the superconstructor
+     * @param cause The cause of the exception
+     * @see Throwable#getMessage()
+     * @see Throwable#getCause()
+     */
+    public IllegalMixinException(@NotNull String detailMessage, @Nullable Throwable cause) {
+        super(detailMessage, cause);
+    }
+
+    /**
+     * Fill in the stack trace of the exception, unless the exception is created while a class is being remapped
+     * in the collecting mode of the {@link MicromixinRemapper}. In that case the exception is only used to transport
+     * the detail message to a {@link RemapDiagnostic}, so capturing the stack trace would be wasted effort.
+     *
+     * @return This exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        if (DiagnosticCollector.getActive() != null) {
+            return this;
+        }
+        return super.fillInStackTrace();
+    }
 }
@@ -0,0 +1,169 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * A {@link MemberLister} which is built once from a pool of {@link ClassNode ClassNodes} and answers all queries
+ * through precomputed indices.
+ *
+ * <p>For every class in the pool the members of the class and all of it's supertypes (superclasses as well as
+ * interfaces) are flattened into a single set, so that {@link #hasMemberInHierarchy(String, String, String)} is a
+ * single hash lookup. {@link #tryInferMember(String, String, String)} makes use of per-owner name and descriptor
+ * indices. Supertypes that are not part of the pool (for example <code>java/lang/Object</code>, unless explicitly
+ * included) are ignored.
+ *
+ * <p>Instances of this class are immutable and thus thread-safe.
+ */
+public class IndexedMemberLister implements MemberLister {
+
+    /**
+     * Create an {@link IndexedMemberLister} from the bytes of the class files within the pool.
+     * Method bodies, debug information and stack map frames are not parsed.
+     *
+     * @param classes The class files that make up the pool.
+     * @return The newly created {@link IndexedMemberLister}.
+     */
+    @NotNull
+    public static IndexedMemberLister fromClassBytes(@NotNull Iterable<byte @NotNull[]> classes) {
+        List<@NotNull ClassNode> nodes = new ArrayList<>();
+        for (byte[] bytes : classes) {
+            ClassNode node = new ClassNode();
+            new ClassReader(bytes).accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            nodes.add(node);
+        }
+        return new IndexedMemberLister(nodes);
+    }
+
+    @NotNull
+    private final Map<@NotNull String, @NotNull List<MemberRef>> declaredMembers = new HashMap<>();
+    @NotNull
+    private final Map<@NotNull String, @NotNull Map<@NotNull String, @NotNull List<MemberRef>>> descriptorIndex = new HashMap<>();
+    @NotNull
+    private final Set<@NotNull MemberRef> flattenedHierarchy = new HashSet<>();
+    @NotNull
+    private final Set<@NotNull MemberRef> memberSet = new HashSet<>();
+    @NotNull
+    private final Map<@NotNull String, @NotNull Map<@NotNull String, @NotNull List<MemberRef>>> nameIndex = new HashMap<>();
+
+    /**
+     * Constructor. Builds all indices from the given pool of classes. The {@link ClassNode ClassNodes}
+     * are not retained by the lister, so they may be modified afterwards.
+     *
+     * @param classes The classes that make up the pool.
+     */
+    public IndexedMemberLister(@NotNull Collection<@NotNull ClassNode> classes) {
+        Map<@NotNull String, @NotNull ClassNode> pool = new HashMap<>();
+        for (ClassNode node : classes) {
+            pool.put(node.name, node);
+        }
+
+        for (ClassNode node : pool.values()) {
+            List<MemberRef> declared = new ArrayList<>(node.fields.size() + node.methods.size());
+            Map<@NotNull String, @NotNull List<MemberRef>> byName = new HashMap<>();
+            Map<@NotNull String, @NotNull List<MemberRef>> byDesc = new HashMap<>();
+            for (FieldNode field : node.fields) {
+                declared.add(new MemberRef(node.name, field.name, field.desc));
+            }
+            for (MethodNode method : node.methods) {
+                declared.add(new MemberRef(node.name, method.name, method.desc));
+            }
+            for (MemberRef ref : declared) {
+                byName.computeIfAbsent(ref.getName(), (ignore) -> new ArrayList<>()).add(ref);
+                byDesc.computeIfAbsent(ref.getDesc(), (ignore) -> new ArrayList<>()).add(ref);
+            }
+            this.memberSet.addAll(declared);
+            this.declaredMembers.put(node.name, Collections.unmodifiableList(declared));
+            this.nameIndex.put(node.name, IndexedMemberLister.freeze(byName));
+            this.descriptorIndex.put(node.name, IndexedMemberLister.freeze(byDesc));
+
+            this.flattenHierarchy(node.name, node.name, pool, new HashSet<>());
+        }
+    }
+
+    @NotNull
+    private static Map<@NotNull String, @NotNull List<MemberRef>> freeze(@NotNull Map<@NotNull String, @NotNull List<MemberRef>> index) {
+        for (Map.Entry<@NotNull String, @NotNull List<MemberRef>> entry : index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return index;
+    }
+
+    private void flattenHierarchy(@NotNull String owner, @Nullable String clazz, @NotNull Map<@NotNull String, @NotNull ClassNode> pool, @NotNull Set<@NotNull String> visited) {
+        if (clazz == null || !visited.add(clazz)) {
+            return;
+        }
+        ClassNode node = pool.get(clazz);
+        if (node == null) {
+            return;
+        }
+
+        for (FieldNode field : node.fields) {
+            this.flattenedHierarchy.add(new MemberRef(owner, field.name, field.desc));
+        }
+        for (MethodNode method : node.methods) {
+            this.flattenedHierarchy.add(new MemberRef(owner, method.name, method.desc));
+        }
+
+        this.flattenHierarchy(owner, node.superName, pool, visited);
+        for (String itf : node.interfaces) {
+            this.flattenHierarchy(owner, itf, pool, visited);
+        }
+    }
+
+    @Override
+    @Nullable
+    public Collection<MemberRef> getReportedClassMembers(@NotNull String owner) {
+        return this.declaredMembers.get(owner);
+    }
+
+    @Override
+    public boolean hasMemberInHierarchy(@NotNull String clazz, @NotNull String name, @NotNull String desc) {
+        return this.flattenedHierarchy.contains(new MemberRef(clazz, name, desc));
+    }
+
+    @Override
+    @NotNull
+    public Collection<MemberRef> tryInferMember(@NotNull String owner, @Nullable String name, @Nullable String desc) {
+        if (name != null && desc != null) {
+            MemberRef ref = new MemberRef(owner, name, desc);
+            if (this.memberSet.contains(ref)) {
+                return Collections.singletonList(ref);
+            }
+            return Collections.emptyList();
+        }
+
+        Map<@NotNull String, @NotNull List<MemberRef>> index;
+        String key;
+        if (name != null) {
+            index = this.nameIndex.get(owner);
+            key = name;
+        } else if (desc != null) {
+            index = this.descriptorIndex.get(owner);
+            key = desc;
+        } else {
+            List<MemberRef> declared = this.declaredMembers.get(owner);
+            return declared == null ? Collections.emptyList() : declared;
+        }
+
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        List<MemberRef> members = index.get(key);
+        return members == null ? Collections.emptyList() : members;
+    }
+}
@@ -0,0 +1,200 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * A {@link MemberLister} backed by a jar file which only reads the classes that are actually queried.
+ *
+ * <p>The jar is opened as a zip {@link FileSystem}, meaning that only the central directory is read upfront.
+ * A class is parsed the first time it is queried, with method bodies, debug information and stack map frames
+ * being skipped. Only the supertypes and the member signatures of the class are retained. As the remapper
+ * usually only queries a few hundred out of potentially tens of thousands classes, this is considerably cheaper
+ * than fully parsing the jar.
+ *
+ * <p>Instances of this class are thread-safe. The underlying {@link FileSystem} is closed through {@link #close()},
+ * after which classes that were not yet parsed can no longer be queried.
+ */
+public class JarMemberLister implements MemberLister, Closeable {
+
+    private static final class ClassHeader {
+        @NotNull
+        private static final ClassHeader MISSING = new ClassHeader(null, Collections.emptyList(), Collections.emptyList());
+
+        @NotNull
+        private final List<@NotNull String> interfaces;
+        @NotNull
+        private final List<MemberRef> members;
+        @Nullable
+        private final String superName;
+
+        private ClassHeader(@Nullable String superName, @NotNull List<@NotNull String> interfaces, @NotNull List<MemberRef> members) {
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.members = members;
+        }
+
+        private boolean hasMember(@NotNull String name, @NotNull String desc) {
+            for (MemberRef ref : this.members) {
+                if (ref.getName().equals(name) && ref.getDesc().equals(desc)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class HeaderCollector extends ClassVisitor {
+        @NotNull
+        private List<@NotNull String> interfaces = Collections.emptyList();
+        @NotNull
+        private final List<MemberRef> members = new ArrayList<>();
+        private String name;
+        @Nullable
+        private String superName;
+
+        private HeaderCollector() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.name = name;
+            this.superName = superName;
+            if (interfaces != null && interfaces.length != 0) {
+                List<@NotNull String> itfs = new ArrayList<>(interfaces.length);
+                Collections.addAll(itfs, interfaces);
+                this.interfaces = Collections.unmodifiableList(itfs);
+            }
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            this.members.add(new MemberRef(this.name, name, descriptor));
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            this.members.add(new MemberRef(this.name, name, descriptor));
+            return null;
+        }
+    }
+
+    @NotNull
+    private final FileSystem fileSystem;
+    @NotNull
+    private final ConcurrentHashMap<@NotNull String, @NotNull ClassHeader> headers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor. Opens the jar file as a zip {@link FileSystem}. The classes within the jar are read lazily.
+     *
+     * @param jar The path to the jar file.
+     * @throws IOException If the jar file could not be opened.
+     */
+    public JarMemberLister(@NotNull Path jar) throws IOException {
+        this.fileSystem = FileSystems.newFileSystem(jar, (ClassLoader) null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.fileSystem.close();
+    }
+
+    @NotNull
+    private ClassHeader getHeader(@NotNull String name) {
+        ClassHeader header = this.headers.get(name);
+        if (header == null) {
+            header = this.readHeader(name);
+            ClassHeader witness = this.headers.putIfAbsent(name, header);
+            if (witness != null) {
+                header = witness;
+            }
+        }
+        return header;
+    }
+
+    @Override
+    @Nullable
+    public Collection<MemberRef> getReportedClassMembers(@NotNull String owner) {
+        ClassHeader header = this.getHeader(owner);
+        return header == ClassHeader.MISSING ? null : header.members;
+    }
+
+    @Override
+    public boolean hasMemberInHierarchy(@NotNull String clazz, @NotNull String name, @NotNull String desc) {
+        Deque<@NotNull String> queue = new ArrayDeque<>();
+        Set<@NotNull String> visited = new HashSet<>();
+        queue.add(clazz);
+
+        while (!queue.isEmpty()) {
+            String type = queue.removeFirst();
+            if (!visited.add(type)) {
+                continue;
+            }
+            ClassHeader header = this.getHeader(type);
+            if (header.hasMember(name, desc)) {
+                return true;
+            }
+            if (header.superName != null) {
+                queue.add(header.superName);
+            }
+            queue.addAll(header.interfaces);
+        }
+
+        return false;
+    }
+
+    @NotNull
+    private ClassHeader readHeader(@NotNull String name) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(this.fileSystem.getPath(name + ".class"));
+        } catch (NoSuchFileException e) {
+            return ClassHeader.MISSING;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read class " + name + " from " + this.fileSystem, e);
+        }
+
+        HeaderCollector collector = new HeaderCollector();
+        new ClassReader(bytes).accept(collector, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return new ClassHeader(collector.superName, collector.interfaces, Collections.unmodifiableList(collector.members));
+    }
+
+    @Override
+    @NotNull
+    public Collection<MemberRef> tryInferMember(@NotNull String owner, @Nullable String name, @Nullable String desc) {
+        ClassHeader header = this.getHeader(owner);
+        List<MemberRef> matches = new ArrayList<>();
+        for (MemberRef ref : header.members) {
+            if ((name == null || ref.getName().equals(name)) && (desc == null || ref.getDesc().equals(desc))) {
+                matches.add(ref);
+            }
+        }
+        return matches;
+    }
+}
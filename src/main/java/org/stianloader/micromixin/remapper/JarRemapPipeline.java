@@ -0,0 +1,349 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+import org.stianloader.remapper.MappingSink;
+import org.stianloader.remapper.Remapper;
+
+/**
+ * Remaps a jar file to another jar file, taking care of running {@link MicromixinRemapper#remapClass(ClassNode)}
+ * on all mixin classes before any class is remapped through {@link Remapper#remapNode(ClassNode, StringBuilder)}.
+ *
+ * <p>The input jar is read twice. The first pass only retains the mixin classes (as determined by
+ * {@link MixinClassScanner}, so no trees are built for other classes), which are then remapped
+ * through {@link MicromixinRemapper#remapClasses(java.util.Collection, Executor)}. The second pass streams
+ * all entries of the input jar to the output jar: Class files are parsed and remapped on the supplied
+ * {@link Executor}, while all other entries are copied verbatim. The amount of entries that are in flight
+ * at any given time is bounded by the queue capacity, so the memory usage of the pipeline does not depend on
+ * the size of the jar - except for the mixin classes that are held between both passes. Entries are written in
+ * the same order as they appear in the input jar.
+ *
+ * <p>The {@link MappingSink} of the {@link MicromixinRemapper} is expected to feed into the mappings
+ * used by the {@link Remapper}. If the {@link Executor} runs tasks concurrently, the requirements of
+ * {@link MicromixinRemapper#remapClasses(java.util.Collection, Executor)} apply and the {@link Remapper}
+ * (or more specifically it's {@link org.stianloader.remapper.MappingLookup}) must be thread-safe. The names of the
+ * output entries are determined upfront through the {@link org.stianloader.remapper.MappingLookup} of the
+ * {@link MicromixinRemapper}, which hence must map class names the same way the {@link Remapper} does.
+ *
+ * <p>Class files within <code>META-INF/</code> as well as <code>module-info.class</code> files are copied
+ * verbatim, except for the class files of multi-release jars within <code>META-INF/versions/</code>, which are remapped
+ * like any other class. Remapped class files are written under their remapped name. Should two entries end up with
+ * the same name, the jar is rejected before anything is written.
+ *
+ * <p>As remapping invalidates any signature of the jar, signature files are not copied and the digests of the
+ * entries are removed from the manifest.
+ */
+public class JarRemapPipeline {
+
+    private static final class RemappedEntry {
+        private final byte @NotNull[] bytes;
+        @NotNull
+        private final String name;
+        @NotNull
+        private final ZipEntry source;
+
+        private RemappedEntry(@NotNull ZipEntry source, @NotNull String name, byte @NotNull[] bytes) {
+            this.source = source;
+            this.name = name;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The default maximum amount of entries in flight, used by {@link #JarRemapPipeline(MicromixinRemapper, Remapper)}.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    @NotNull
+    private static final String VERSIONS_DIRECTORY = "META-INF/versions/";
+
+    @NotNull
+    private final Executor executor;
+    @NotNull
+    private final MicromixinRemapper mixinRemapper;
+    private final int queueCapacity;
+    @NotNull
+    private final Remapper remapper;
+
+    /**
+     * Constructor. Creates a {@link JarRemapPipeline} which runs on the {@link ForkJoinPool#commonPool() common pool}
+     * with a queue capacity of {@link #DEFAULT_QUEUE_CAPACITY}.
+     *
+     * @param mixinRemapper The {@link MicromixinRemapper} used to remap mixin classes.
+     * @param remapper The {@link Remapper} used to remap all classes.
+     */
+    public JarRemapPipeline(@NotNull MicromixinRemapper mixinRemapper, @NotNull Remapper remapper) {
+        this(mixinRemapper, remapper, ForkJoinPool.commonPool(), JarRemapPipeline.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param mixinRemapper The {@link MicromixinRemapper} used to remap mixin classes.
+     * @param remapper The {@link Remapper} used to remap all classes.
+     * @param executor The {@link Executor} on which classes are remapped.
+     * @param queueCapacity The maximum amount of entries that are read but not yet written. Must be positive.
+     */
+    public JarRemapPipeline(@NotNull MicromixinRemapper mixinRemapper, @NotNull Remapper remapper, @NotNull Executor executor, int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("The queue capacity must be positive, but it is " + queueCapacity);
+        }
+        this.mixinRemapper = Objects.requireNonNull(mixinRemapper, "Supplied argument 'mixinRemapper' may not be null.");
+        this.remapper = Objects.requireNonNull(remapper, "Supplied argument 'remapper' may not be null.");
+        this.executor = Objects.requireNonNull(executor, "Supplied argument 'executor' may not be null.");
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Obtain the directory of a multi-release jar in which an entry resides.
+     *
+     * @param name The name of the entry.
+     * @return The versioned directory including the trailing slash (for example <code>META-INF/versions/17/</code>),
+     * or an empty string if the entry is not versioned.
+     */
+    @NotNull
+    private static String getVersionPrefix(@NotNull String name) {
+        if (!name.startsWith(JarRemapPipeline.VERSIONS_DIRECTORY)) {
+            return "";
+        }
+        int end = name.indexOf('/', JarRemapPipeline.VERSIONS_DIRECTORY.length());
+        return end < 0 ? "" : name.substring(0, end + 1);
+    }
+
+    private static boolean isRemappedClass(@NotNull ZipEntry entry) {
+        String name = entry.getName();
+        if (entry.isDirectory()
+                || !name.endsWith(".class")
+                || name.equals("module-info.class")
+                || name.endsWith("/module-info.class")) {
+            return false;
+        }
+        return !name.startsWith("META-INF/") || !JarRemapPipeline.getVersionPrefix(name).isEmpty();
+    }
+
+    private static boolean isSignatureFile(@NotNull String name) {
+        String upperName = name.toUpperCase(Locale.ROOT);
+        if (!upperName.startsWith("META-INF/") || upperName.indexOf('/', 9) >= 0) {
+            return false;
+        }
+        return upperName.endsWith(".SF")
+                || upperName.endsWith(".RSA")
+                || upperName.endsWith(".DSA")
+                || upperName.endsWith(".EC")
+                || upperName.startsWith("META-INF/SIG-");
+    }
+
+    @NotNull
+    private static ClassNode readClass(byte @NotNull[] bytes) {
+        ClassNode node = new ClassNode();
+        new ClassReader(bytes).accept(node, 0);
+        return node;
+    }
+
+    private static byte @NotNull[] readEntry(@NotNull ZipFile zip, @NotNull ZipEntry entry) throws IOException {
+        try (InputStream in = zip.getInputStream(entry)) {
+            return JarRemapPipeline.readFully(in);
+        }
+    }
+
+    private static byte @NotNull[] readFully(@NotNull InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        int length = 0;
+        for (int read; (read = in.read(buffer, length, buffer.length - length)) != -1;) {
+            length += read;
+            if (length == buffer.length) {
+                byte[] grown = new byte[buffer.length << 1];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+            }
+        }
+        byte[] trimmed = new byte[length];
+        System.arraycopy(buffer, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    /**
+     * Remove the digests of the entries from a manifest, as they no longer match once the entries are remapped.
+     * Sections of entries that only consisted of digests are removed entirely.
+     *
+     * @param manifestBytes The contents of the manifest.
+     * @return The contents of the manifest without digests.
+     * @throws IOException If the manifest could not be parsed.
+     */
+    private static byte @NotNull[] stripDigests(byte @NotNull[] manifestBytes) throws IOException {
+        Manifest manifest = new Manifest(new ByteArrayInputStream(manifestBytes));
+        Iterator<Map.Entry<String, Attributes>> sections = manifest.getEntries().entrySet().iterator();
+        while (sections.hasNext()) {
+            Attributes attributes = sections.next().getValue();
+            attributes.keySet().removeIf((key) -> key.toString().toUpperCase(Locale.ROOT).endsWith("-DIGEST"));
+            if (attributes.isEmpty()) {
+                sections.remove();
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(manifestBytes.length);
+        manifest.write(out);
+        return out.toByteArray();
+    }
+
+    private static void write(@NotNull ZipOutputStream out, @NotNull RemappedEntry entry) throws IOException {
+        ZipEntry written = new ZipEntry(entry.name);
+        written.setTime(entry.source.getTime());
+        out.putNextEntry(written);
+        out.write(entry.bytes);
+        out.closeEntry();
+    }
+
+    /**
+     * Collect and remap the mixin classes of the jar. The returned map is keyed by the name of the entry
+     * the class was read from. Before anything is remapped, the names of the output entries are computed
+     * in order to detect entries that would be written under the same name.
+     *
+     * @param zip The input jar.
+     * @return The already remapped mixin classes.
+     * @throws IOException If the jar could not be read or if the names of the output entries collide.
+     * @throws IllegalMixinException Thrown if any mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link MicromixinRemapper#logUnimplementedFeature(String)}.
+     */
+    @NotNull
+    private Map<@NotNull String, @NotNull ClassNode> collectMixins(@NotNull ZipFile zip) throws IOException, IllegalMixinException, MissingFeatureException {
+        Map<@NotNull String, @NotNull ClassNode> mixins = new LinkedHashMap<>();
+        Map<@NotNull String, @NotNull String> outputNames = new LinkedHashMap<>();
+        StringBuilder collisions = new StringBuilder();
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String outputName = entry.getName();
+            if (JarRemapPipeline.isRemappedClass(entry)) {
+                ClassReader reader = new ClassReader(JarRemapPipeline.readEntry(zip, entry));
+                outputName = JarRemapPipeline.getVersionPrefix(outputName) + this.mixinRemapper.getLookup().getRemappedClassName(reader.getClassName()) + ".class";
+                if (MixinClassScanner.isMixin(reader)) {
+                    ClassNode node = new ClassNode();
+                    reader.accept(node, 0);
+                    mixins.put(entry.getName(), node);
+                }
+            } else if (JarRemapPipeline.isSignatureFile(outputName)) {
+                continue;
+            }
+            String previous = outputNames.putIfAbsent(outputName, entry.getName());
+            if (previous != null) {
+                collisions.append("\n  ").append(outputName).append(" (from ").append(previous).append(" and ").append(entry.getName()).append(')');
+            }
+        }
+        if (collisions.length() != 0) {
+            throw new IOException("Unable to remap " + zip.getName() + " as multiple entries would be written under the same name:" + collisions);
+        }
+
+        this.mixinRemapper.remapClasses(mixins.values(), this.executor);
+        return mixins;
+    }
+
+    @NotNull
+    private RemappedEntry remapEntry(@NotNull ZipEntry entry, @NotNull ClassNode node) {
+        this.remapper.remapNode(node, new StringBuilder());
+        ClassWriter writer = new ClassWriter(0);
+        node.accept(writer);
+        return new RemappedEntry(entry, JarRemapPipeline.getVersionPrefix(entry.getName()) + node.name + ".class", writer.toByteArray());
+    }
+
+    /**
+     * Remap the jar file at the given input path, writing the result to the given output path.
+     * The output file is overwritten should it already exist.
+     *
+     * @param input The path of the jar to remap.
+     * @param output The path to write the remapped jar to.
+     * @throws IOException If the input jar could not be read or if the output jar could not be written.
+     * @throws IllegalMixinException Thrown if any mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link MicromixinRemapper#logUnimplementedFeature(String)}.
+     */
+    public void remapJar(@NotNull Path input, @NotNull Path output) throws IOException, IllegalMixinException, MissingFeatureException {
+        try (ZipFile zip = new ZipFile(input.toFile());
+                OutputStream rawOut = Files.newOutputStream(output);
+                ZipOutputStream out = new ZipOutputStream(rawOut)) {
+            Map<@NotNull String, @NotNull ClassNode> mixins = this.collectMixins(zip);
+            Deque<@NotNull CompletableFuture<@NotNull RemappedEntry>> queue = new ArrayDeque<>(this.queueCapacity);
+
+            try {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (queue.size() == this.queueCapacity) {
+                        JarRemapPipeline.write(out, JarRemapPipeline.take(queue));
+                    }
+
+                    if (!JarRemapPipeline.isRemappedClass(entry)) {
+                        String name = entry.getName();
+                        if (JarRemapPipeline.isSignatureFile(name)) {
+                            continue;
+                        }
+                        byte[] bytes = JarRemapPipeline.readEntry(zip, entry);
+                        if (name.equalsIgnoreCase(JarFile.MANIFEST_NAME)) {
+                            bytes = JarRemapPipeline.stripDigests(bytes);
+                        }
+                        queue.addLast(CompletableFuture.completedFuture(new RemappedEntry(entry, name, bytes)));
+                        continue;
+                    }
+
+                    ClassNode mixin = mixins.remove(entry.getName());
+                    if (mixin != null) {
+                        queue.addLast(CompletableFuture.supplyAsync(() -> this.remapEntry(entry, mixin), this.executor));
+                    } else {
+                        byte[] bytes = JarRemapPipeline.readEntry(zip, entry);
+                        queue.addLast(CompletableFuture.supplyAsync(() -> this.remapEntry(entry, JarRemapPipeline.readClass(bytes)), this.executor));
+                    }
+                }
+
+                while (!queue.isEmpty()) {
+                    JarRemapPipeline.write(out, JarRemapPipeline.take(queue));
+                }
+            } finally {
+                for (CompletableFuture<@NotNull RemappedEntry> pending : queue) {
+                    pending.cancel(false);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static RemappedEntry take(@NotNull Deque<@NotNull CompletableFuture<@NotNull RemappedEntry>> queue) {
+        CompletableFuture<@NotNull RemappedEntry> head = queue.removeFirst();
+        try {
+            return head.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
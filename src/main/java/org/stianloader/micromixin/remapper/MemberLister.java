@@ -1,6 +1,10 @@
 package org.stianloader.micromixin.remapper;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -19,6 +23,35 @@ import org.stianloader.remapper.MemberRef;
  */
 public interface MemberLister {
 
+    /**
+     * Bulk variant of {@link #hasMemberInHierarchy(String, String, String)}: Obtain all classes among
+     * <code>classes</code> that have a member with the given name and descriptor within themselves or any of
+     * their supertypes.
+     *
+     * <p>The remapper calls this method instead of repeatedly calling {@link #hasMemberInHierarchy(String, String, String)}
+     * when the same member is looked up for every target of a mixin, for example when remapping aliases.
+     * The default implementation simply delegates to {@link #hasMemberInHierarchy(String, String, String)} for every class.
+     * Implementations for which every query carries a significant overhead (for example because the
+     * queries are answered remotely) are encouraged to override this method in order to answer all queries at once.
+     *
+     * <p>The returned classes must be in the same order as within <code>classes</code>.
+     *
+     * @param classes The owners to start searching in, in the source namespace.
+     * @param name The name of the member, in the source namespace.
+     * @param desc The descriptor of the member, in the source namespace.
+     * @return The classes which have the member in their hierarchy, or an empty collection if none of them do.
+     */
+    @NotNull
+    default Collection<@NotNull String> filterMemberInHierarchy(@NotNull Collection<@NotNull String> classes, @NotNull String name, @NotNull String desc) {
+        List<@NotNull String> matches = new ArrayList<>(classes.size());
+        for (String clazz : classes) {
+            if (this.hasMemberInHierarchy(clazz, name, desc)) {
+                matches.add(clazz);
+            }
+        }
+        return matches;
+    }
+
     /**
      * List all known members of a given class.
      *
@@ -98,4 +131,29 @@ public interface MemberLister {
      */
     @NotNull
     Collection<MemberRef> tryInferMember(@NotNull String owner, @Nullable String name, @Nullable String desc);
+
+    /**
+     * Bulk variant of {@link #tryInferMember(String, String, String)}: Infer the members of all
+     * classes within <code>owners</code> that match the given name or descriptor.
+     *
+     * <p>The remapper calls this method instead of repeatedly calling {@link #tryInferMember(String, String, String)}
+     * when resolving string target selectors of mixins with multiple targets. The default implementation simply
+     * delegates to {@link #tryInferMember(String, String, String)} for every owner. Implementations for which every
+     * query carries a significant overhead are encouraged to override this method in order to answer all queries at once.
+     *
+     * @param owners The internal names of the owners of the members to collect.
+     * @param name The name of the member within the source namespace.
+     * @param desc The descriptor of the member.
+     * @return A {@link Map} which maps every owner, in the same iteration order as <code>owners</code>, to the
+     * {@link Collection} of {@link MemberRef member references} that {@link #tryInferMember(String, String, String)}
+     * would have returned for the owner.
+     */
+    @NotNull
+    default Map<@NotNull String, @NotNull Collection<MemberRef>> tryInferMembers(@NotNull Collection<@NotNull String> owners, @Nullable String name, @Nullable String desc) {
+        Map<@NotNull String, @NotNull Collection<MemberRef>> members = new LinkedHashMap<>();
+        for (String owner : owners) {
+            members.put(owner, this.tryInferMember(owner, name, desc));
+        }
+        return members;
+    }
 }
@@ -0,0 +1,41 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.Collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * A handler which remaps a mixin annotation on a method of a mixin class, registered through
+ * {@link MicromixinRemapper#registerMethodAnnotationHandler(String, MethodAnnotationHandler)}.
+ * Handlers for injector annotations are usually built using {@link AnnotationRemapper}.
+ *
+ * <p>A method may only carry a single annotation for which a handler is registered.
+ *
+ * <p>When a class is remapped through
+ * {@link MicromixinRemapper#remapClass(org.objectweb.asm.ClassReader, org.objectweb.asm.ClassVisitor, int)},
+ * the class passed to the handler only contains stubs of it's members: Their name, descriptor, access flags,
+ * signature and visible annotations are set, but they contain no code. Further, only the methods declared up to
+ * the method being remapped are present.
+ */
+@FunctionalInterface
+public interface MethodAnnotationHandler {
+
+    /**
+     * Remap the annotation of a mixin method.
+     *
+     * @param remapper The {@link MicromixinRemapper} remapping the mixin class.
+     * @param node The mixin class.
+     * @param method The method of the mixin class carrying the annotation.
+     * @param annotation The annotation to remap. Remapping is performed in-place.
+     * @param targets The internal names of the target classes of the mixin class.
+     * @param sink The {@link MappingSink} to which member renames are emitted.
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link MicromixinRemapper#logUnimplementedFeature(String)}.
+     */
+    void remapMethodAnnotation(@NotNull MicromixinRemapper remapper, @NotNull ClassNode node, @NotNull MethodNode method,
+            @NotNull AnnotationNode annotation, @NotNull Collection<@NotNull String> targets, @NotNull MappingSink sink) throws IllegalMixinException, MissingFeatureException;
+}
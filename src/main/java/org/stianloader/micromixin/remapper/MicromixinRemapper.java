@@ -4,12 +4,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
@@ -17,12 +24,15 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.AnnotationNode;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
+import org.stianloader.micromixin.remapper.RemapMetricsListener.SelectorOutcome;
 import org.stianloader.micromixin.remapper.selectors.AtSelector;
 import org.stianloader.micromixin.remapper.selectors.ConstantSelector;
 import org.stianloader.micromixin.remapper.selectors.FieldSelector;
@@ -46,17 +56,163 @@ public class MicromixinRemapper {
     @Internal
     public static final String CALLBACK_INFO_RETURNABLE_CLASS = "org/spongepowered/asm/mixin/injection/callback/CallbackInfoReturnable";
 
+    private static final class SelectorCacheKey {
+        private final int hash;
+        @Nullable
+        private final Predicate<@NotNull String> predicate;
+        @NotNull
+        private final String selector;
+        @Nullable
+        private final Collection<@NotNull String> targets;
+
+        private SelectorCacheKey(@NotNull String selector, @Nullable Collection<@NotNull String> targets, @Nullable Predicate<@NotNull String> predicate) {
+            this.selector = selector;
+            this.targets = targets;
+            this.predicate = predicate;
+            this.hash = (selector.hashCode() * 31 + Objects.hashCode(targets)) * 31 + Objects.hashCode(predicate);
+        }
+
+        @NotNull
+        private SelectorCacheKey detach() {
+            if (this.targets == null) {
+                return this;
+            }
+            // The target collection is owned by the caller, so it needs to be copied before it is retained.
+            return new SelectorCacheKey(this.selector, Collections.unmodifiableSet(new LinkedHashSet<>(this.targets)), this.predicate);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SelectorCacheKey)) {
+                return false;
+            }
+            SelectorCacheKey other = (SelectorCacheKey) obj;
+            return this.hash == other.hash
+                    && this.selector.equals(other.selector)
+                    && Objects.equals(this.targets, other.targets)
+                    && Objects.equals(this.predicate, other.predicate);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * The members inferred from target selectors in the source namespace. As inference only depends on the
+     * {@link MemberLister}, the inferred members can be shared between remappers that use the same
+     * {@link MemberLister} but map into different namespaces. Instances of this class are thread-safe.
+     */
+    static final class SharedInference {
+        @NotNull
+        private final BoundedCache<@NotNull SelectorCacheKey, @NotNull List<@NotNull MemberRef>> candidates;
+
+        SharedInference(int maximumSize) {
+            this.candidates = new BoundedCache<>(maximumSize);
+        }
+    }
+
+    // The built-in handlers are stateless and act on the supplied remapper, just like handlers registered by API consumers
+    @NotNull
+    private static final MethodAnnotationHandler OVERWRITE_HANDLER = (remapper, node, method, annot, targets, sink) -> remapper.handleOverwrite(annot, targets, node, method, sink);
     @NotNull
-    private final MemberLister lister;
+    private static final FieldAnnotationHandler SHADOW_FIELD_HANDLER = (remapper, node, field, annot, targets, sink) -> remapper.remapShadowField(node, field, annot, targets, sink);
     @NotNull
-    private final MappingLookup lookup;
+    private static final MethodAnnotationHandler SHADOW_METHOD_HANDLER = (remapper, node, method, annot, targets, sink) -> remapper.remapShadowMethod(node, method, annot, targets, sink);
+    @NotNull
+    private static final FieldAnnotationHandler UNIQUE_FIELD_HANDLER = (remapper, node, field, annot, targets, sink) -> remapper.remapUnique(node, annot);
+    @NotNull
+    private static final MethodAnnotationHandler UNIQUE_METHOD_HANDLER = (remapper, node, method, annot, targets, sink) -> remapper.remapUnique(node, annot);
+
+    @NotNull
+    private final MemberLister baseLister;
+    @NotNull
+    private final MappingLookup baseLookup;
+    @Nullable
+    private MixinDependencyIndex dependencyIndex;
+    @Nullable
+    private volatile BoundedCache<@NotNull String, @NotNull String> descriptorCache;
+    @NotNull
+    private final Map<@NotNull String, @NotNull FieldAnnotationHandler> fieldHandlers = new HashMap<>();
+    @NotNull
+    private MemberLister lister;
+    @NotNull
+    private MappingLookup lookup;
+    @Nullable
+    private RemapMetricsListener metricsListener;
+    @NotNull
+    private final Map<@NotNull String, @NotNull MethodAnnotationHandler> methodHandlers = new HashMap<>();
+    @Nullable
+    private SelectorResolutionTable resolutionTable;
+    @Nullable
+    private SharedInference sharedInference;
+    @Nullable
+    private volatile BoundedCache<@NotNull SelectorCacheKey, @NotNull String> selectorCache;
     @NotNull
     private final MappingSink sink;
 
     public MicromixinRemapper(@NotNull MappingLookup lookup, @NotNull MappingSink sink, @NotNull MemberLister lister) {
+        this.baseLookup = lookup;
         this.lookup = lookup;
         this.sink = sink;
+        this.baseLister = lister;
         this.lister = lister;
+        this.registerDefaultHandlers();
+    }
+
+    /**
+     * Disable the descriptor cache and discard all cached descriptors.
+     *
+     * @see #enableDescriptorCache(int)
+     */
+    public void disableDescriptorCache() {
+        this.descriptorCache = null;
+    }
+
+    /**
+     * Disable the target selector cache and discard all cached resolutions.
+     *
+     * @see #enableSelectorCache(int)
+     */
+    public void disableSelectorCache() {
+        this.selectorCache = null;
+    }
+
+    /**
+     * Enable caching of remapped descriptors. The descriptors used by mixins (for example those of
+     * <code>&#64;Desc</code> annotations, of target selectors or the descriptors of callback handlers) are heavily
+     * repeated, so caching the remapped descriptor avoids repeatedly remapping it through the {@link MappingLookup}.
+     *
+     * <p>The cache assumes that the remapped names of classes returned by the {@link MappingLookup} do not change while
+     * the cache is enabled. The cache is thread-safe, and calling this method discards any previously cached descriptors.
+     *
+     * @param maximumSize The maximum amount of cached descriptors. Must be positive.
+     * @see #disableDescriptorCache()
+     */
+    public void enableDescriptorCache(int maximumSize) {
+        this.descriptorCache = new BoundedCache<>(maximumSize);
+    }
+
+    /**
+     * Enable caching of resolved string target selectors (for example those used in <code>&#64;Inject.method</code> or
+     * <code>&#64;At.target</code>). Large mixin sets tend to use the same selectors many times over, so caching the
+     * resolution avoids repeatedly parsing the selector, querying the {@link MemberLister} and remapping the
+     * resolved member.
+     *
+     * <p>Resolutions are cached by the selector string (ignoring whitespace), the targets of the mixin and the
+     * predicate used to filter inferred members. Only successful resolutions are cached, so selectors that
+     * cause an error (be it through an exception or through {@link #logUnimplementedFeature(String)}) will
+     * continue to do so every time they are encountered. The cache assumes that the results of the
+     * {@link MappingLookup} and {@link MemberLister} do not change while the cache is enabled.
+     *
+     * <p>The cache is thread-safe, and calling this method discards any previously cached resolutions.
+     *
+     * @param maximumSize The maximum amount of cached resolutions. Must be positive.
+     * @see #disableSelectorCache()
+     */
+    public void enableSelectorCache(int maximumSize) {
+        this.selectorCache = new BoundedCache<>(maximumSize);
     }
 
     /**
@@ -76,7 +232,100 @@ public class MicromixinRemapper {
         return true;
     }
 
-    private void handleOverwrite(@Nullable AnnotationNode annot, @NotNull Collection<@NotNull String> targets, ClassNode node, MethodNode method) throws IllegalMixinException, MissingFeatureException {
+    @Nullable
+    MixinDependencyIndex getDependencyIndex() {
+        return this.dependencyIndex;
+    }
+
+    @NotNull
+    MemberLister getBaseLister() {
+        return this.baseLister;
+    }
+
+    @NotNull
+    MappingLookup getLookup() {
+        return this.baseLookup;
+    }
+
+    @NotNull
+    MappingSink getSink() {
+        return this.sink;
+    }
+
+    /**
+     * Remap a field or method descriptor, making use of the descriptor cache if it is enabled.
+     *
+     * @param desc The descriptor in the source namespace.
+     * @return The descriptor in the destination namespace.
+     */
+    @NotNull
+    private String getRemappedDescriptor(@NotNull String desc) {
+        BoundedCache<@NotNull String, @NotNull String> descriptorCache = this.descriptorCache;
+        if (descriptorCache != null) {
+            String cached = descriptorCache.get(desc);
+            if (cached != null) {
+                DependencyRecorder recorder = DependencyRecorder.getActive();
+                if (recorder != null) {
+                    recorder.recordDescriptor(desc);
+                }
+                return cached;
+            }
+        }
+
+        StringBuilder builder = new StringBuilder(desc.length());
+        String remapped;
+        if (desc.codePointAt(0) == '(') {
+            remapped = Remapper.getRemappedMethodDescriptor(this.lookup, desc, builder);
+        } else {
+            remapped = Remapper.getRemappedFieldDescriptor(this.lookup, desc, builder);
+        }
+
+        if (descriptorCache != null) {
+            descriptorCache.put(desc, remapped);
+        }
+        return remapped;
+    }
+
+    /**
+     * Infer the members a target selector may refer to in the source namespace, making use of the
+     * {@link SharedInference} if one is set.
+     *
+     * @param selector The selector, without whitespace.
+     * @param targets The classes to infer the member in.
+     * @param name The name of the member, or null if it is inferred.
+     * @param desc The descriptor of the member, or null if it is inferred.
+     * @param predicate The predicate filtering the descriptors of inferred members, or null to accept all members.
+     * @return The candidate members, in the order they were reported by the {@link MemberLister}.
+     */
+    @NotNull
+    private List<@NotNull MemberRef> inferCandidates(@NotNull String selector, @NotNull Collection<@NotNull String> targets, @Nullable String name, @Nullable String desc, @Nullable Predicate<@NotNull String> predicate) {
+        SharedInference sharedInference = this.sharedInference;
+        SelectorCacheKey key = null;
+        if (sharedInference != null) {
+            key = new SelectorCacheKey(selector, targets, predicate);
+            List<@NotNull MemberRef> cached = sharedInference.candidates.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<@NotNull MemberRef> candidates = new ArrayList<>();
+        for (Collection<MemberRef> references : this.lister.tryInferMembers(targets, name, desc).values()) {
+            for (MemberRef ref : references) {
+                if (predicate == null || predicate.test(ref.getDesc())) {
+                    candidates.add(ref);
+                }
+            }
+        }
+
+        if (key != null) {
+            candidates = Collections.unmodifiableList(candidates);
+            sharedInference.candidates.put(key.detach(), candidates);
+        }
+        return candidates;
+    }
+
+    private void handleOverwrite(@Nullable AnnotationNode annot, @NotNull Collection<@NotNull String> targets, ClassNode node, MethodNode method, @NotNull MappingSink sink) throws IllegalMixinException, MissingFeatureException {
         if (annot != null && annot.values != null) {
             for (int i = 0; i < annot.values.size(); i += 2) {
                 String name = (String) annot.values.get(i);
@@ -88,17 +337,15 @@ public class MicromixinRemapper {
                         String alias = aliases.get(j);
                         assert alias != null;
                         String remappedAlias = null;
-                        for (String target : targets) {
-                            if (this.lister.hasMemberInHierarchy(target, alias, method.desc)) {
-                                String remappedName = this.lookup.getRemappedMethodName(target, alias, method.desc);
-                                if (remappedAlias != null && !remappedAlias.equals(remappedName)) {
-                                    throw new IllegalMixinException("Disjoint mapping names while trying to remap alias for @Overwrite-annotated method: " + node.name + "." + method.name + method.desc
-                                            + ". This is likely caused by different target classes having different names for the overwritten member. Potential ways of resolving this issue include:\n"
-                                            + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
-                                            + "\t2. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change as well as what the new behaviour should be)");
-                                }
-                                remappedAlias = remappedName;
+                        for (String target : this.lister.filterMemberInHierarchy(targets, alias, method.desc)) {
+                            String remappedName = this.lookup.getRemappedMethodName(target, alias, method.desc);
+                            if (remappedAlias != null && !remappedAlias.equals(remappedName)) {
+                                throw new IllegalMixinException("Disjoint mapping names while trying to remap alias for @Overwrite-annotated method: " + node.name + "." + method.name + method.desc
+                                        + ". This is likely caused by different target classes having different names for the overwritten member. Potential ways of resolving this issue include:\n"
+                                        + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
+                                        + "\t2. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change as well as what the new behaviour should be)");
                             }
+                            remappedAlias = remappedName;
                         }
                         if (remappedAlias != null) {
                             aliases.set(j, remappedAlias);
@@ -142,7 +389,7 @@ public class MicromixinRemapper {
         }
 
         if (remappedMemberName != null) {
-            this.sink.remapMember(new MemberRef(node.name, method.name, method.desc), remappedMemberName);
+            sink.remapMember(new MemberRef(node.name, method.name, method.desc), remappedMemberName);
         }
     }
 
@@ -154,6 +401,8 @@ public class MicromixinRemapper {
      *
      * <p>By default it'll cause an {@link MissingFeatureException} to be thrown, but it is possible to overwrite this
      * behaviour with a logging call. In that case, the remapper will try to continue on a best-effort basis.
+     * While remapping in the collecting mode (see {@link #remapClassCollecting(ClassNode)}), the default
+     * implementation records a {@link RemapDiagnostic} and returns normally instead.
      *
      * @param featureDescription The description of the feature that is not implemented and what caused the issue to occur.
      * @throws MissingFeatureException Thrown if the error handler is configured to stop execution of the remapper in a
@@ -161,6 +410,11 @@ public class MicromixinRemapper {
      */
     @OverrideOnly
     protected void logUnimplementedFeature(@NotNull String featureDescription) throws MissingFeatureException {
+        DiagnosticCollector diagnostics = DiagnosticCollector.getActive();
+        if (diagnostics != null) {
+            diagnostics.report(RemapDiagnostic.Kind.MISSING_FEATURE, featureDescription);
+            return;
+        }
         throw new MissingFeatureException(featureDescription);
     }
 
@@ -195,13 +449,82 @@ public class MicromixinRemapper {
         }
     }
 
+    void recordResolution(@NotNull String mixinClassName, @NotNull String selector, @NotNull String resolved) {
+        ResolutionBuffer buffer = ResolutionBuffer.getActive();
+        if (buffer != null) {
+            buffer.record(mixinClassName, selector, resolved);
+            return;
+        }
+        SelectorResolutionTable resolutionTable = this.resolutionTable;
+        if (resolutionTable != null) {
+            resolutionTable.record(mixinClassName, selector, resolved);
+        }
+    }
+
+    private void recordSelectorOutcome(@NotNull SelectorOutcome outcome) {
+        RemapMetricsListener metrics = this.metricsListener;
+        if (metrics != null) {
+            metrics.onSelectorResolved(outcome);
+        }
+    }
+
+    private void registerDefaultHandlers() {
+        this.methodHandlers.put("Lorg/spongepowered/asm/mixin/Shadow;", MicromixinRemapper.SHADOW_METHOD_HANDLER);
+        this.methodHandlers.put("Lorg/spongepowered/asm/mixin/Unique;", MicromixinRemapper.UNIQUE_METHOD_HANDLER);
+        this.methodHandlers.put("Lorg/spongepowered/asm/mixin/Overwrite;", MicromixinRemapper.OVERWRITE_HANDLER);
+        AnnotationRemapper.registerDefaults(this.methodHandlers);
+
+        this.fieldHandlers.put("Lorg/spongepowered/asm/mixin/Shadow;", MicromixinRemapper.SHADOW_FIELD_HANDLER);
+        this.fieldHandlers.put("Lorg/spongepowered/asm/mixin/Unique;", MicromixinRemapper.UNIQUE_FIELD_HANDLER);
+    }
+
+    /**
+     * Register a handler for a mixin annotation on fields, replacing any handler previously registered
+     * for the same annotation. By default handlers for <code>&#64;Shadow</code> and <code>&#64;Unique</code>
+     * are registered.
+     *
+     * <p>Handlers are owned by this remapper instance, so registering a handler does not affect other instances.
+     * This method must not be called while classes are being remapped.
+     *
+     * @param annotationDesc The descriptor of the annotation, for example <code>Lorg/spongepowered/asm/mixin/Shadow;</code>.
+     * @param handler The handler to register.
+     */
+    public void registerFieldAnnotationHandler(@NotNull String annotationDesc, @NotNull FieldAnnotationHandler handler) {
+        this.fieldHandlers.put(Objects.requireNonNull(annotationDesc, "Supplied argument 'annotationDesc' may not be null."), Objects.requireNonNull(handler, "Supplied argument 'handler' may not be null."));
+    }
+
+    /**
+     * Register a handler for a mixin annotation on methods, replacing any handler previously registered
+     * for the same annotation. By default handlers for <code>&#64;Shadow</code>, <code>&#64;Unique</code>,
+     * <code>&#64;Overwrite</code> and the supported injector annotations are registered. Handlers for further
+     * injector annotations can be built using {@link AnnotationRemapper}.
+     *
+     * <p>Handlers are owned by this remapper instance, so registering a handler does not affect other instances.
+     * This method must not be called while classes are being remapped.
+     *
+     * @param annotationDesc The descriptor of the annotation, for example <code>Lorg/spongepowered/asm/mixin/injection/Inject;</code>.
+     * @param handler The handler to register.
+     */
+    public void registerMethodAnnotationHandler(@NotNull String annotationDesc, @NotNull MethodAnnotationHandler handler) {
+        this.methodHandlers.put(Objects.requireNonNull(annotationDesc, "Supplied argument 'annotationDesc' may not be null."), Objects.requireNonNull(handler, "Supplied argument 'handler' may not be null."));
+    }
+
     @Internal
-    public void remapAt(@NotNull String owner, @NotNull String member, int ordinal, @NotNull Collection<String> targets, AnnotationNode annot) throws IllegalMixinException, MissingFeatureException {
+    public void remapAt(@NotNull RemapContext ctx, int ordinal, AnnotationNode annot) throws IllegalMixinException, MissingFeatureException {
+        this.remapAt(ctx, () -> ctx.mixinMethod.name + ctx.mixinMethod.desc, ordinal, annot);
+    }
+
+    private void remapAt(@NotNull RemapContext ctx, @NotNull Supplier<@NotNull String> member, int ordinal, AnnotationNode annot) throws IllegalMixinException, MissingFeatureException {
         int idxValue = 0;
         int idxArgs = 0;
         int idxTarget = 0;
         int idxDesc = 0;
 
+        Supplier<@NotNull String> errorPrefix = () -> {
+            return "An unexpected error occured while remapping @At annotation in " + ctx.mixinClassName + "." + member.get()
+                + (ordinal < 0 ? ("[" + ordinal + "]: ") : ": ");
+        };
+
         for (int i = 0; i < annot.values.size(); i++) {
             String name = (String) annot.values.get(i++);
             if (name.equals("args")) {
@@ -217,16 +540,12 @@ public class MicromixinRemapper {
             } else if (name.equals("target")) {
                 idxTarget = i;
             } else {
-                String error = "An unexpected error occured while remapping @At annotation in " + owner + "." + member;
-                error += ordinal < 0 ? ("[" + ordinal + "]: ") : ": ";
-                this.logUnimplementedFeature(error + "Unimplemented key in @At: " + name);
+                this.logUnimplementedFeature(errorPrefix.get() + "Unimplemented key in @At: " + name);
             }
         }
 
         if (idxValue == 0) {
-            String error = "An unexpected error occured while remapping @At annotation in " + owner + "." + member;
-            error += ordinal < 0 ? ("[" + ordinal + "]: ") : ": ";
-            throw new IllegalMixinException(error + "The annotation is missing the required element 'value'. This error is usually caused by improperly written ASM transformers generating the mixin improperly. Tip: Use tools such as Krakatau, javap and Recaf for troubleshooting faulty transformers!");
+            throw new IllegalMixinException(errorPrefix.get() + "The annotation is missing the required element 'value'. This error is usually caused by improperly written ASM transformers generating the mixin improperly. Tip: Use tools such as Krakatau, javap and Recaf for troubleshooting faulty transformers!");
         }
 
         @SuppressWarnings("unchecked")
@@ -235,34 +554,34 @@ public class MicromixinRemapper {
         String value = (String) annot.values.get(idxValue);
         AtSelector selector = this.lookupSelector(Objects.requireNonNull(value));
         if (selector == null) {
-            String error = "An unexpected error occured while remapping @At annotation in " + owner + "." + member;
-            error += ordinal < 0 ? ("[" + ordinal + "]: ") : ": ";
-            this.logUnimplementedFeature(error + "Unknown @At injection point selector value: " + value);
+            this.logUnimplementedFeature(errorPrefix.get() + "Unknown @At injection point selector value: " + value);
         } else {
-            String errorPrefix = "An unexpected error occured while remapping @At annotation in " + owner + "." + member;
-            errorPrefix += ordinal < 0 ? ("[" + ordinal + "]: ") : ": ";
             selector.remapArgs(errorPrefix, args, this.lookup);
         }
 
         if (idxTarget != 0) {
-            String errorPrefix = "An unexpected error occured while remapping @At.target in " + owner + "." + member;
-            errorPrefix += ordinal < 0 ? ("[" + ordinal + "]: ") : ": ";
-            annot.values.set(idxTarget, this.remapTargetSelector(errorPrefix, (String) annot.values.get(idxTarget), null, null));
+            Supplier<@NotNull String> targetErrorPrefix = () -> {
+                return "An unexpected error occured while remapping @At.target in " + ctx.mixinClassName + "." + member.get()
+                    + (ordinal < 0 ? ("[" + ordinal + "]: ") : ": ");
+            };
+            annot.values.set(idxTarget, this.remapTargetSelector(targetErrorPrefix, ctx.mixinClassName, (String) annot.values.get(idxTarget), null, null));
         }
 
         if (idxDesc != 0) {
-            String errorPrefix = "An unexpected error occured while remapping @At.desc in " + owner + "." + member;
-            errorPrefix += ordinal < 0 ? ("[" + ordinal + "]: ") : ": ";
+            Supplier<@NotNull String> descErrorPrefix = () -> {
+                return "An unexpected error occured while remapping @At.desc in " + ctx.mixinClassName + "." + member.get()
+                    + (ordinal < 0 ? ("[" + ordinal + "]: ") : ": ");
+            };
             boolean matchFields = selector != null && selector.isMatchingFields();
-            this.remapDescAnnotation(errorPrefix, targets, (AnnotationNode) annot.values.get(idxDesc), matchFields);
+            this.remapDescAnnotation(descErrorPrefix, ctx.mixinClassName, ctx.targets, (AnnotationNode) annot.values.get(idxDesc), matchFields);
         }
     }
 
     @Internal
-    public void remapAtArray(@NotNull String owner, @NotNull String method, @NotNull Collection<String> targets, Object nodes) throws IllegalMixinException, MissingFeatureException {
+    public void remapAtArray(@NotNull RemapContext ctx, Object nodes) throws IllegalMixinException, MissingFeatureException {
         int ordinal = 0;
         for (Object node : (Iterable<?>) nodes) {
-            this.remapAt(owner, method, ordinal++, targets, (AnnotationNode) node);
+            this.remapAt(ctx, ordinal++, (AnnotationNode) node);
         }
     }
 
@@ -284,7 +603,8 @@ public class MicromixinRemapper {
      * then the mixin should be considered illegal.
      *
      * <p>It is permissible for the provided mixin class to not be an <code>&#64;Mixin</code>-annotated
-     * class, in which case the class is skipped.
+     * class, in which case the class is skipped. However, {@link MixinClassScanner} can be used to avoid
+     * building the {@link ClassNode} of such classes in the first place.
      *
      * @param node The {@link ClassNode} to remap
      * @throws IllegalMixinException Thrown if the mixin contains illegal code (e.g. invalid targets in
@@ -294,15 +614,112 @@ public class MicromixinRemapper {
      * point in time.
      */
     public void remapClass(@NotNull ClassNode node) throws IllegalMixinException, MissingFeatureException {
+        this.remapClass(node, this.sink);
+    }
+
+    /**
+     * Remap a mixin class while it is streamed from a {@link ClassReader} to a {@link ClassVisitor}, behaving
+     * exactly like {@link #remapClass(ClassNode)} would for a {@link ClassNode} read from the same class file.
+     * As the remapper only reads annotations, only these are buffered, so no trees of the method bodies are built.
+     * Classes that are not mixins are passed through unchanged.
+     *
+     * <p>As the class is never read in full, the {@link ClassNode} passed to {@link MethodAnnotationHandler method} and
+     * {@link FieldAnnotationHandler field annotation handlers} only contains stubs of the members of the class,
+     * which carry no code. Handlers of method annotations further only see the methods declared before (and including)
+     * the method being remapped. Handlers that inspect the code or other members of the class should not be used with
+     * this method.
+     *
+     * <p>Should remapping fail, the {@link ClassVisitor} will have been visited partially and should be discarded.
+     *
+     * @param reader The {@link ClassReader} to read the class from
+     * @param visitor The {@link ClassVisitor} to pass the remapped class to, for example a {@link org.objectweb.asm.ClassWriter}.
+     * May be null if only the mapping requests are of interest.
+     * @param parsingOptions The options to pass to {@link ClassReader#accept(ClassVisitor, int)}
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link #logUnimplementedFeature(String)}.
+     */
+    public void remapClass(@NotNull ClassReader reader, @Nullable ClassVisitor visitor, int parsingOptions) throws IllegalMixinException, MissingFeatureException {
+        try {
+            reader.accept(new StreamingMixinRemapper(this, this.sink, visitor), parsingOptions);
+        } catch (StreamingMixinRemapper.Failure failure) {
+            Throwable cause = failure.getCause();
+            if (cause instanceof IllegalMixinException) {
+                throw (IllegalMixinException) cause;
+            }
+            throw (MissingFeatureException) cause;
+        }
+    }
+
+    /**
+     * Remap a {@link ClassNode} just like {@link #remapClass(ClassNode, MappingSink)}, but buffer the selector
+     * resolutions instead of recording them in the {@link SelectorResolutionTable}. The resolutions are to be
+     * {@link ResolutionBuffer#flush(MicromixinRemapper) flushed} once the outcome of the class is committed.
+     *
+     * @param node The {@link ClassNode} to remap
+     * @param sink The {@link MappingSink} to which member renames are emitted
+     * @return The buffered selector resolutions of the class.
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link #logUnimplementedFeature(String)}.
+     */
+    @NotNull
+    ResolutionBuffer remapClassBuffered(@NotNull ClassNode node, @NotNull MappingSink sink) throws IllegalMixinException, MissingFeatureException {
+        ResolutionBuffer resolutions = new ResolutionBuffer();
+        resolutions.activate();
+        try {
+            this.remapClass(node, sink);
+        } finally {
+            resolutions.deactivate();
+        }
+        return resolutions;
+    }
+
+    /**
+     * Remap a {@link ClassNode} just like {@link #remapClass(ClassNode)}, but emit all mapping requests
+     * to the supplied {@link MappingSink} instead of the sink set through the constructor.
+     *
+     * @param node The {@link ClassNode} to remap
+     * @param sink The {@link MappingSink} to which member renames are emitted
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link #logUnimplementedFeature(String)}.
+     */
+    void remapClass(@NotNull ClassNode node, @NotNull MappingSink sink) throws IllegalMixinException, MissingFeatureException {
+        MixinDependencyIndex dependencyIndex = this.dependencyIndex;
+        if (dependencyIndex == null) {
+            this.remapMixinClass(node, sink);
+            return;
+        }
+
+        DependencyRecorder recorder = new DependencyRecorder();
+        recorder.activate();
+        try {
+            this.remapMixinClass(node, sink);
+        } finally {
+            recorder.deactivate();
+        }
+        dependencyIndex.record(node, recorder);
+    }
+
+    /**
+     * Remap the class-level annotations of a mixin class, that is the <code>&#64;Mixin</code> annotation.
+     * Only the name and the invisible annotations of the {@link ClassNode} are accessed.
+     *
+     * @param node The {@link ClassNode} whose annotations should be remapped
+     * @return The internal names of the targets of the mixin in the source namespace, or null if the class is not a mixin.
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link #logUnimplementedFeature(String)}.
+     */
+    @Nullable
+    Set<@NotNull String> remapClassAnnotations(@NotNull ClassNode node) throws IllegalMixinException, MissingFeatureException {
         Set<@NotNull String> targets = new LinkedHashSet<>();
         boolean mixinClass = false;
 
         if (node.invisibleAnnotations == null) {
-            return;
+            return null;
         }
+        DiagnosticCollector diagnostics = DiagnosticCollector.getActive();
         for (AnnotationNode annot : node.invisibleAnnotations) {
-            if (!annot.desc.startsWith("Lorg/spongepowered/asm/mixin/")) {
-                continue;
+            if (diagnostics != null) {
+                diagnostics.setLocation(null, null, annot.desc);
             }
             if (annot.desc.equals("Lorg/spongepowered/asm/mixin/Mixin;")) {
                 mixinClass = true;
@@ -341,28 +758,269 @@ public class MicromixinRemapper {
                         this.logUnimplementedFeature("Unimplemented key in @Mixin: " + name + " within node " + node.name);
                     }
                 }
-            } else {
+            } else if (annot.desc.startsWith("Lorg/spongepowered/asm/mixin/")) {
                 this.logUnimplementedFeature("Unknown annotation at class level for node " + node.name + ": " + annot.desc);
             }
         }
 
-        if (!mixinClass) {
+        return mixinClass ? targets : null;
+    }
+
+    private void remapMixinClass(@NotNull ClassNode node, @NotNull MappingSink sink) throws IllegalMixinException, MissingFeatureException {
+        Set<@NotNull String> targets = this.remapClassAnnotations(node);
+        if (targets == null) {
             return;
         }
 
         for (MethodNode method : node.methods) {
-            this.remapMethod(node, method, targets);
+            this.remapMethod(node, method, targets, sink);
         }
 
         for (FieldNode field : node.fields) {
-            this.remapField(node, field, targets);
+            this.remapField(node, field, targets, sink);
         }
     }
 
+    /**
+     * Remap a {@link ClassNode} just like {@link #remapClass(ClassNode)}, but in the collecting mode: Instead of
+     * aborting on the first problem, every problem is recorded as a {@link RemapDiagnostic} and the remapper
+     * continues with the next annotation. This allows to find all problems of a mixin class within a single pass.
+     *
+     * <p>In the collecting mode the default implementation of {@link #logUnimplementedFeature(String)} does not throw
+     * but records the problem. An {@link IllegalMixinException} (or a {@link MissingFeatureException} thrown by an
+     * overridden {@link #logUnimplementedFeature(String)}) only aborts the annotation that is being remapped.
+     * Problems within the class annotations, such as an illegal target of the <code>&#64;Mixin</code> annotation,
+     * still abort the remapping of the entire class. Unexpected {@link RuntimeException RuntimeExceptions} abort
+     * the remapping of the entire class as well and are recorded as
+     * {@link RemapDiagnostic.Kind#UNEXPECTED_EXCEPTION}. No stack traces are captured for any of the recorded problems.
+     *
+     * <p>Mapping requests of annotations that were remapped successfully are emitted to the {@link MappingSink}
+     * regardless of whether problems were found. As such, the outcome of remapping a class with problems
+     * is best-effort and should not be used for anything other than reporting the problems.
+     *
+     * @param node The {@link ClassNode} to remap
+     * @return The problems encountered while remapping the class, in the order they were encountered. Empty if the
+     * class was remapped without problems.
+     */
+    @NotNull
+    public List<@NotNull RemapDiagnostic> remapClassCollecting(@NotNull ClassNode node) {
+        return this.remapClassCollecting(node, this.sink);
+    }
+
     @NotNull
-    private void remapDescAnnotation(@NotNull String errorPrefix, @NotNull Collection<String> targets, AnnotationNode descAnnot, boolean matchField) throws MissingFeatureException, IllegalMixinException {
+    private List<@NotNull RemapDiagnostic> remapClassCollecting(@NotNull ClassNode node, @NotNull MappingSink sink) {
+        DiagnosticCollector diagnostics = new DiagnosticCollector(node.name);
+        diagnostics.activate();
+        try {
+            this.remapClass(node, sink);
+        } catch (IllegalMixinException | MissingFeatureException | RuntimeException e) {
+            diagnostics.report(e);
+        } finally {
+            diagnostics.deactivate();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    /**
+     * Remap a {@link ClassNode} just like {@link #remapClass(ClassNode)}, but transactionally: Should remapping
+     * fail, neither the {@link ClassNode} nor this remapper's {@link MappingSink} are modified. This makes defensive
+     * copies of the class obsolete.
+     *
+     * <p>As the remapper only ever modifies the annotations of the class, the annotations of the class and of all
+     * it's members are swapped for deep copies while the class is being remapped and all mapping requests as well as
+     * the selector resolutions are buffered. Only once the entire class was remapped successfully the mapping requests
+     * are emitted and the resolutions are recorded in the {@link #setResolutionTable(SelectorResolutionTable) table}. Should remapping fail,
+     * the original annotations are restored instead. As such, the {@link ClassNode} must not be accessed
+     * by other threads while it is being remapped.
+     *
+     * @param node The {@link ClassNode} to remap
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link #logUnimplementedFeature(String)}.
+     */
+    public void remapClassTransactional(@NotNull ClassNode node) throws IllegalMixinException, MissingFeatureException {
+        List<AnnotationNode> classAnnotations = node.invisibleAnnotations;
+        List<List<AnnotationNode>> methodAnnotations = new ArrayList<>(node.methods.size());
+        List<List<AnnotationNode>> fieldAnnotations = new ArrayList<>(node.fields.size());
+
+        node.invisibleAnnotations = RemapRecord.copyAnnotations(classAnnotations);
+        for (MethodNode method : node.methods) {
+            methodAnnotations.add(method.visibleAnnotations);
+            method.visibleAnnotations = RemapRecord.copyAnnotations(method.visibleAnnotations);
+        }
+        for (FieldNode field : node.fields) {
+            fieldAnnotations.add(field.visibleAnnotations);
+            field.visibleAnnotations = RemapRecord.copyAnnotations(field.visibleAnnotations);
+        }
+
+        BufferedMappingSink buffer = new BufferedMappingSink();
+        ResolutionBuffer resolutions;
+        boolean committed = false;
+        try {
+            resolutions = this.remapClassBuffered(node, buffer);
+            committed = true;
+        } finally {
+            if (!committed) {
+                node.invisibleAnnotations = classAnnotations;
+                for (int i = 0; i < methodAnnotations.size(); i++) {
+                    node.methods.get(i).visibleAnnotations = methodAnnotations.get(i);
+                }
+                for (int i = 0; i < fieldAnnotations.size(); i++) {
+                    node.fields.get(i).visibleAnnotations = fieldAnnotations.get(i);
+                }
+            }
+        }
+
+        buffer.flush(this.sink);
+        resolutions.flush(this);
+    }
+
+    /**
+     * Remap multiple {@link ClassNode ClassNodes} using the {@link ForkJoinPool#commonPool() common pool}.
+     * See {@link #remapClasses(Collection, Executor)} for further details.
+     *
+     * @param nodes The {@link ClassNode ClassNodes} to remap
+     * @throws IllegalMixinException Thrown if any mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link #logUnimplementedFeature(String)}.
+     */
+    public void remapClasses(@NotNull Collection<@NotNull ClassNode> nodes) throws IllegalMixinException, MissingFeatureException {
+        this.remapClasses(nodes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Remap multiple {@link ClassNode ClassNodes} concurrently by running {@link #remapClass(ClassNode)}
+     * for every class on the supplied {@link Executor}. The same requirements as for {@link #remapClass(ClassNode)}
+     * apply, that is this method needs to be executed before the actual remapping process through
+     * {@link Remapper#remapNode(ClassNode, StringBuilder)}.
+     *
+     * <p>Mapping requests are buffered per class and only emitted to this remapper's {@link MappingSink} on the
+     * calling thread once all classes were processed. Requests are emitted in the iteration order of the supplied
+     * collection, meaning that the state of the {@link MappingSink} is identical to the state that would be obtained
+     * by calling {@link #remapClass(ClassNode)} sequentially for all classes. As such, the {@link MappingSink} does not
+     * need to be thread-safe. However, the {@link MappingLookup} and {@link MemberLister} instances as well as
+     * {@link #logUnimplementedFeature(String)} and {@link #forbidRemappingInterfaceMembers(String, Collection)}
+     * must support being called from multiple threads concurrently.
+     *
+     * <p>If remapping a class fails, the mapping requests of all classes that come before the failing class are
+     * emitted, after which the failure is rethrown as an exception of the same type, but with a message that
+     * names the offending class and with the original exception as it's cause. Unexpected exceptions, such as a
+     * {@link ClassCastException} caused by a malformed annotation, are likewise wrapped in an
+     * {@link IllegalStateException} naming the offending class, while {@link Error Errors} are rethrown as-is.
+     * Failures of later classes are attached as {@link Throwable#getSuppressed() suppressed} exceptions. Unlike with the sequential approach,
+     * classes that come after the failing class will still have been processed, so their {@link ClassNode} may have
+     * been modified.
+     *
+     * @param nodes The {@link ClassNode ClassNodes} to remap
+     * @param executor The {@link Executor} on which the classes are remapped, for example a {@link ForkJoinPool}.
+     * @throws IllegalMixinException Thrown if any mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link #logUnimplementedFeature(String)}.
+     */
+    public void remapClasses(@NotNull Collection<@NotNull ClassNode> nodes, @NotNull Executor executor) throws IllegalMixinException, MissingFeatureException {
+        List<@NotNull ClassNode> nodeList = new ArrayList<>(nodes);
+        BufferedMappingSink[] buffers = new BufferedMappingSink[nodeList.size()];
+        Throwable[] failures = new Throwable[nodeList.size()];
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[nodeList.size()];
+
+        for (int i = 0; i < tasks.length; i++) {
+            final int index = i;
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                BufferedMappingSink buffer = new BufferedMappingSink();
+                try {
+                    this.remapClass(nodeList.get(index), buffer);
+                    buffers[index] = buffer;
+                } catch (Throwable t) {
+                    failures[index] = t;
+                }
+            }, executor);
+        }
+
+        CompletableFuture.allOf(tasks).join();
+
+        for (int i = 0; i < tasks.length; i++) {
+            Throwable failure = failures[i];
+            if (failure == null) {
+                buffers[i].flush(this.sink);
+                continue;
+            }
+
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+
+            String failedClass = nodeList.get(i).name;
+            String message = "Unable to remap mixin class " + failedClass + ": " + failure.getMessage();
+            Exception rethrown;
+            if (failure instanceof IllegalMixinException) {
+                rethrown = new IllegalMixinException(message, failure);
+            } else if (failure instanceof MissingFeatureException) {
+                rethrown = new MissingFeatureException(message, failure);
+            } else {
+                rethrown = new IllegalStateException("Unable to remap mixin class " + failedClass + " due to an unexpected exception: " + failure, failure);
+            }
+
+            while (++i < tasks.length) {
+                if (failures[i] != null) {
+                    rethrown.addSuppressed(failures[i]);
+                }
+            }
+
+            if (rethrown instanceof IllegalMixinException) {
+                throw (IllegalMixinException) rethrown;
+            } else if (rethrown instanceof MissingFeatureException) {
+                throw (MissingFeatureException) rethrown;
+            }
+            throw (IllegalStateException) rethrown;
+        }
+    }
+
+    /**
+     * Remap multiple {@link ClassNode ClassNodes} concurrently in the collecting mode. Every class is remapped
+     * on the supplied {@link Executor} as if by {@link #remapClassCollecting(ClassNode)}. Just like with
+     * {@link #remapClasses(Collection, Executor)}, mapping requests are buffered per class and emitted to this
+     * remapper's {@link MappingSink} on the calling thread in the iteration order of the supplied collection,
+     * and the same thread-safety requirements apply. A class failing with an unexpected exception is reported
+     * through a diagnostic of that class, so that the diagnostics of the other classes are still returned.
+     *
+     * @param nodes The {@link ClassNode ClassNodes} to remap
+     * @param executor The {@link Executor} on which the classes are remapped, for example a {@link ForkJoinPool}.
+     * @return The problems encountered while remapping the classes, grouped by class in the iteration order of the
+     * supplied collection. Empty if all classes were remapped without problems.
+     */
+    @NotNull
+    public List<@NotNull RemapDiagnostic> remapClassesCollecting(@NotNull Collection<@NotNull ClassNode> nodes, @NotNull Executor executor) {
+        List<@NotNull BufferedMappingSink> buffers = new ArrayList<>(nodes.size());
+        List<@NotNull CompletableFuture<@NotNull List<@NotNull RemapDiagnostic>>> tasks = new ArrayList<>(nodes.size());
+        for (ClassNode node : nodes) {
+            BufferedMappingSink buffer = new BufferedMappingSink();
+            buffers.add(buffer);
+            tasks.add(CompletableFuture.supplyAsync(() -> this.remapClassCollecting(node, buffer), executor));
+        }
+
+        List<@NotNull RemapDiagnostic> diagnostics = new ArrayList<>();
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+            for (CompletableFuture<@NotNull List<@NotNull RemapDiagnostic>> task : tasks) {
+                diagnostics.addAll(task.join());
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+
+        for (BufferedMappingSink buffer : buffers) {
+            buffer.flush(this.sink);
+        }
+        return diagnostics;
+    }
+
+    @NotNull
+    private void remapDescAnnotation(@NotNull Supplier<@NotNull String> errorPrefix, @NotNull String mixinClassName, @NotNull Collection<String> targets, AnnotationNode descAnnot, boolean matchField) throws MissingFeatureException, IllegalMixinException {
         if (!descAnnot.desc.equals("Lorg/spongepowered/asm/mixin/injection/Desc;")) {
-            throw new IllegalMixinException(errorPrefix + "Invalid annotation descriptor: " + descAnnot.desc);
+            throw new IllegalMixinException(errorPrefix.get() + "Invalid annotation descriptor: " + descAnnot.desc);
         }
 
         int idxValue = 0;
@@ -381,12 +1039,12 @@ public class MicromixinRemapper {
             } else if (name.equals("owner")) {
                 idxOwner = i;
             } else {
-                this.logUnimplementedFeature(errorPrefix + "Unimplemented key in @Desc: " + name);
+                this.logUnimplementedFeature(errorPrefix.get() + "Unimplemented key in @Desc: " + name);
             }
         }
 
         if (idxValue == 0) {
-            throw new IllegalMixinException(errorPrefix + "The @Desc annotation is missing the required element 'value'. This error is usually caused by improperly written ASM transformers generating the mixin improperly. Tip: Use tools such as Krakatau, javap and Recaf for troubleshooting faulty transformers!");
+            throw new IllegalMixinException(errorPrefix.get() + "The @Desc annotation is missing the required element 'value'. This error is usually caused by improperly written ASM transformers generating the mixin improperly. Tip: Use tools such as Krakatau, javap and Recaf for troubleshooting faulty transformers!");
         }
 
         Collection<String> owners = targets;
@@ -416,7 +1074,7 @@ public class MicromixinRemapper {
         } else {
             if (idxRet == 0) {
                 desc = "V";
-                this.logUnimplementedFeature(errorPrefix + "The @Desc annotation is expected to match a field, but has not explicitly set the field descriptor using ret.");
+                this.logUnimplementedFeature(errorPrefix.get() + "The @Desc annotation is expected to match a field, but has not explicitly set the field descriptor using ret.");
             } else {
                 desc = ((Type) descAnnot.values.get(idxRet)).getDescriptor();
             }
@@ -425,25 +1083,35 @@ public class MicromixinRemapper {
         if (owners.size() == 1) {
             String owner = owners.iterator().next();
             assert owner != null;
-            StringBuilder builder = new StringBuilder();
-            Remapper.remapSignature(this.lookup, desc, builder);
+            String remappedDesc = this.getRemappedDescriptor(desc);
+            String remappedName;
             if (matchField) {
-                descAnnot.values.set(idxValue, this.lookup.getRemappedFieldName(owner, name, desc));
+                remappedName = this.lookup.getRemappedFieldName(owner, name, desc);
+                descAnnot.values.set(idxValue, remappedName);
                 if (idxRet != 0) {
-                    descAnnot.values.set(idxRet, Type.getType(builder.toString()));
+                    descAnnot.values.set(idxRet, Type.getType(remappedDesc));
                 }
             } else {
-                descAnnot.values.set(idxValue, this.lookup.getRemappedMethodName(owner, name, desc));
-                desc = builder.toString();
+                remappedName = this.lookup.getRemappedMethodName(owner, name, desc);
+                descAnnot.values.set(idxValue, remappedName);
                 if (idxRet != 0) {
-                    descAnnot.values.set(idxRet, Type.getType(desc.substring(desc.lastIndexOf(')') + 1)));
+                    descAnnot.values.set(idxRet, Type.getType(remappedDesc.substring(remappedDesc.lastIndexOf(')') + 1)));
                 }
                 if (idxArgs != 0) {
-                    descAnnot.values.set(idxArgs, new ArrayList<>(Arrays.asList(Type.getMethodType(desc).getArgumentTypes())));
+                    descAnnot.values.set(idxArgs, new ArrayList<>(Arrays.asList(Type.getMethodType(remappedDesc).getArgumentTypes())));
                 }
             }
+            String remappedOwner = null;
             if (idxOwner != 0) {
-                descAnnot.values.set(idxOwner, Type.getObjectType(this.lookup.getRemappedClassName(owner)));
+                remappedOwner = this.lookup.getRemappedClassName(owner);
+                descAnnot.values.set(idxOwner, Type.getObjectType(remappedOwner));
+            }
+            if (this.resolutionTable != null || ResolutionBuffer.getActive() != null) {
+                if (remappedOwner == null) {
+                    remappedOwner = this.lookup.getRemappedClassName(owner);
+                }
+                char separator = matchField ? ':' : ' ';
+                this.recordResolution(mixinClassName, "L" + owner + ";" + name + separator + desc, "L" + remappedOwner + ";" + remappedName + separator + remappedDesc);
             }
         } else {
             String mappedName = null;
@@ -459,7 +1127,7 @@ public class MicromixinRemapper {
                 if (mappedName == null) {
                     mappedName = newName;
                 } else if (!mappedName.equals(newName)) {
-                    throw new IllegalMixinException(errorPrefix + "Torn @Desc: Multiple potential owners define multiple potential names. Following steps can be taken to mitigate this issue:\n"
+                    throw new IllegalMixinException(errorPrefix.get() + "Torn @Desc: Multiple potential owners define multiple potential names. Following steps can be taken to mitigate this issue:\n"
                             + "\t1.: Only define a single @Mixin.target/@Mixin.value per Mixin class.\n"
                             + "\t2.: Explicitly define @Desc.owner for this @Desc annotation (and if necessary seperate a single @Desc into multiple @Desc annotations).\n"
                             + "\t3.: Validate the name hierarchy used to remap the @Desc; ensuring that no two classes define different names for the same method.\n"
@@ -468,19 +1136,18 @@ public class MicromixinRemapper {
             }
 
             if (mappedName == null) {
-                throw new IllegalMixinException(errorPrefix + "No owners exist that would influence this @Desc (did you forget specifying a target in the @Mixin annotation?).");
+                throw new IllegalMixinException(errorPrefix.get() + "No owners exist that would influence this @Desc (did you forget specifying a target in the @Mixin annotation?).");
             }
 
-            StringBuilder builder = new StringBuilder();
-            Remapper.remapSignature(this.lookup, desc, builder);
+            String remappedDesc = this.getRemappedDescriptor(desc);
 
             descAnnot.values.set(idxValue, mappedName);
             if (matchField) {
                 if (idxRet != 0) {
-                    descAnnot.values.set(idxRet, Type.getType(builder.toString()));
+                    descAnnot.values.set(idxRet, Type.getType(remappedDesc));
                 }
             } else {
-                desc = builder.toString();
+                desc = remappedDesc;
                 if (idxRet != 0) {
                     descAnnot.values.set(idxRet, Type.getType(desc.substring(desc.lastIndexOf(')') + 1)));
                 }
@@ -491,93 +1158,38 @@ public class MicromixinRemapper {
         }
     }
 
-    private void remapField(@NotNull ClassNode node, FieldNode field, @NotNull Collection<@NotNull String> targets) throws MissingFeatureException, IllegalMixinException {
+    void remapField(@NotNull ClassNode node, FieldNode field, @NotNull Collection<@NotNull String> targets, @NotNull MappingSink sink) throws MissingFeatureException, IllegalMixinException {
         String mainAnnotation = null;
+        RemapMetricsListener metrics = this.metricsListener;
+
+        DiagnosticCollector diagnostics = DiagnosticCollector.getActive();
 
         if (field.visibleAnnotations != null) {
             for (AnnotationNode annot : field.visibleAnnotations) {
-                if (!annot.desc.startsWith("Lorg/spongepowered/asm/mixin/")
-                        && !annot.desc.startsWith("Lcom/llamalad7/mixinextras/injector/")) {
+                FieldAnnotationHandler handler = this.fieldHandlers.get(annot.desc);
+                if (handler == null) {
                     continue;
                 }
 
-                if (annot.desc.equals("Lorg/spongepowered/asm/mixin/Shadow;")) {
+                if (diagnostics != null) {
+                    diagnostics.setLocation(field.name, field.desc, annot.desc);
+                }
+                try {
                     if (mainAnnotation != null) {
                         throw new IllegalMixinException("Illegal mixin field " + node.name + "." + field.name + ":" + field.desc + ": The mixin field is annotated with two or more incompatible annotations: " + mainAnnotation + " and " + annot.desc);
                     }
                     mainAnnotation = annot.desc;
-                    String remapPrefix = "shadow$";
-                    for (int i = 0; annot.values != null && i < annot.values.size(); i += 2) {
-                        String name = (String) annot.values.get(i);
-                        Object value = annot.values.get(i + 1);
-                        if (name.equals("prefix")) {
-                            remapPrefix = (String) value;
-                        } else if (name.equals("aliases")) {
-                            @SuppressWarnings("unchecked")
-                            List<String> aliases = (List<String>) (List<?>) value;
-                            for (int j = 0; j < aliases.size(); j++) {
-                                String alias = aliases.get(j);
-                                assert alias != null;
-                                String remappedAlias = null;
-                                for (String target : targets) {
-                                    if (this.lister.hasMemberInHierarchy(target, alias, field.desc)) {
-                                        String remappedName = this.lookup.getRemappedFieldName(target, alias, field.desc);
-                                        if (remappedAlias != null && !remappedAlias.equals(remappedName)) {
-                                            throw new IllegalMixinException("Disjoint mapping names while trying to remap alias for @Shadow-annotated field: " + node.name + "." + field.name + ":" + field.desc
-                                                    + ". This is likely caused by different target classes having different names for the shadowed member. Potential ways of resolving this issue include:\n"
-                                                    + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
-                                                    + "\t2. Use an @Accessor (not supported by micromixin as of April 2024)\n"
-                                                    + "\t3. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
-                                        }
-                                        remappedAlias = remappedName;
-                                    }
-                                }
-                                if (remappedAlias != null) {
-                                    aliases.set(j, remappedAlias);
-                                }
-                            }
-                        } else {
-                            this.logUnimplementedFeature("Unimplemented key in @Shadow: " + name + " within node " + node.name);
-                        }
-                    }
 
-                    String shadowName = field.name;
-                    boolean prefixed = field.name.startsWith(remapPrefix);
-                    if (prefixed) {
-                        shadowName = field.name.substring(remapPrefix.length());
+                    long startTime = metrics == null ? 0L : System.nanoTime();
+                    handler.remapFieldAnnotation(this, node, field, annot, targets, sink);
+                    if (metrics != null) {
+                        metrics.onAnnotationProcessed(annot.desc, System.nanoTime() - startTime);
                     }
-
-                    String remappedShadowName = null;
-                    for (String target : targets) {
-                        String targetRemapped = this.lookup.getRemappedFieldName(target, shadowName, field.desc);
-                        if (remappedShadowName != null && !remappedShadowName.equals(targetRemapped)) {
-                            throw new IllegalMixinException("Disjoint mapping names while trying to remap name of @Shadow-annotated field: " + node.name + "." + field.name + ":" + field.desc
-                                    + ". This is likely caused by different target classes having different names for the shadowed member. Potential ways of resolving this issue include:\n"
-                                    + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
-                                    + "\t2. Use an @Accessor (not supported by micromixin as of April 2024)\n"
-                                    + "\t3. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
-                        }
-                        remappedShadowName = targetRemapped;
+                } catch (IllegalMixinException | MissingFeatureException e) {
+                    if (diagnostics == null) {
+                        throw e;
                     }
-
-                    if (remappedShadowName != null) {
-                        if (prefixed) {
-                            remappedShadowName = remapPrefix + remappedShadowName;
-                        }
-                        this.sink.remapMember(new MemberRef(node.name, field.name, field.desc), remappedShadowName);
-                    }
-                } else if (annot.desc.equals("Lorg/spongepowered/asm/mixin/Unique;")) {
-                    if (mainAnnotation != null) {
-                        throw new IllegalMixinException("Illegal mixin field " + node.name + "." + field.name + ":" + field.desc + ": The mixin field is annotated with two or more incompatible annotations: " + mainAnnotation + " and " + annot.desc);
-                    }
-                    mainAnnotation = annot.desc;
-                    for (int i = 0; annot.values != null && i < annot.values.size(); i += 2) {
-                        String name = (String) annot.values.get(i);
-                        if (!name.equals("silent")) {
-                            this.logUnimplementedFeature("Unimplemented key in @Unique: " + name + " within node " + node.name);
-                        }
-                    }
-                    // @Unique requires no further changes
+                    diagnostics.report(e);
                 }
             }
         }
@@ -585,143 +1197,64 @@ public class MicromixinRemapper {
         // TODO implement implicit field overlay/shadow/overwrite
     }
 
-    private void remapMethod(@NotNull ClassNode node, MethodNode method, @NotNull Collection<@NotNull String> targets) throws MissingFeatureException, IllegalMixinException {
+    void remapMethod(@NotNull ClassNode node, MethodNode method, @NotNull Collection<@NotNull String> targets, @NotNull MappingSink sink) throws MissingFeatureException, IllegalMixinException {
         String mainAnnotation = null;
+        RemapMetricsListener metrics = this.metricsListener;
+
+        DiagnosticCollector diagnostics = DiagnosticCollector.getActive();
 
         if (method.visibleAnnotations != null) {
             for (AnnotationNode annot : method.visibleAnnotations) {
-                if (!annot.desc.startsWith("Lorg/spongepowered/asm/mixin/")
-                        && !annot.desc.startsWith("Lcom/llamalad7/mixinextras/injector/")
-                        && !annot.desc.startsWith("Lorg/stianloader/micromixin/annotations/")) {
-                    continue;
+                if (diagnostics != null) {
+                    diagnostics.setLocation(method.name, method.desc, annot.desc);
                 }
-
-                if (annot.desc.equals("Lorg/spongepowered/asm/mixin/Shadow;")) {
-                    if (mainAnnotation != null) {
-                        throw new IllegalMixinException("Illegal mixin method " + node.name + "." + method.name + method.desc + ": The mixin handler is annotated with two or more incompatible annotations: " + mainAnnotation + " and " + annot.desc);
-                    }
-                    mainAnnotation = annot.desc;
-                    String remapPrefix = (method.access & Opcodes.ACC_STATIC) == 0 ? "shadow$" : null;
-                    for (int i = 0; annot.values != null && i < annot.values.size(); i += 2) {
-                        String name = (String) annot.values.get(i);
-                        Object value = annot.values.get(i + 1);
-                        if (name.equals("prefix")) {
-                            if ((method.access & Opcodes.ACC_STATIC) != 0) {
-                                this.logUnimplementedFeature("The static @Shadow-annotated mixin method " + node.name + "." + method.name + method.desc + " defines a prefix.  However, due to a bug in the spongeian mixin implementation INVOKESTATIC calls will not be redirected to the non-prefixed member you are targetting, effectively causing a crash at runtime. At this point in time micromixin-transformer replicates this issue, but this behaviour is subject to change.");
-                            }
-                            remapPrefix = (String) value;
-                        } else if (name.equals("aliases")) {
-                            @SuppressWarnings("unchecked")
-                            List<String> aliases = (List<String>) (List<?>) value;
-                            for (int j = 0; j < aliases.size(); j++) {
-                                String alias = aliases.get(j);
-                                assert alias != null;
-                                String remappedAlias = null;
-                                for (String target : targets) {
-                                    if (this.lister.hasMemberInHierarchy(target, alias, method.desc)) {
-                                        String remappedName = this.lookup.getRemappedMethodName(target, alias, method.desc);
-                                        if (remappedAlias != null && !remappedAlias.equals(remappedName)) {
-                                            throw new IllegalMixinException("Disjoint mapping names while trying to remap alias for @Shadow-annotated method: " + node.name + "." + method.name + method.desc
-                                                    + ". This is likely caused by different target classes having different names for the shadowed member. Potential ways of resolving this issue include:\n"
-                                                    + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
-                                                    + "\t2. Use an @Invoker (not supported by micromixin as of April 2024)\n"
-                                                    + "\t3. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
-                                        }
-                                        remappedAlias = remappedName;
-                                    }
-                                }
-                                if (remappedAlias != null) {
-                                    aliases.set(j, remappedAlias);
-                                }
-                            }
-                        } else {
-                            this.logUnimplementedFeature("Unimplemented key in @Shadow: " + name + " within node " + node.name);
-                        }
-                    }
-
-                    String shadowName = method.name;
-                    if (remapPrefix != null && method.name.startsWith(remapPrefix)) {
-                        shadowName = method.name.substring(remapPrefix.length());
-                    }
-
-                    String remappedShadowName = null;
-                    for (String target : targets) {
-                        String targetRemapped = this.lookup.getRemappedMethodName(target, shadowName, method.desc);
-                        if (remappedShadowName != null && !remappedShadowName.equals(targetRemapped)) {
-                            throw new IllegalMixinException("Disjoint mapping names while trying to remap name of @Shadow-annotated method: " + node.name + "." + method.name + method.desc
-                                    + ". This is likely caused by different target classes having different names for the shadowed member. Potential ways of resolving this issue include:\n"
-                                    + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
-                                    + "\t2. Use an @Invoker (not supported by micromixin as of April 2024)\n"
-                                    + "\t3. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
-                        }
-                        remappedShadowName = targetRemapped;
-                    }
-
-                    if (remappedShadowName != null && !shadowName.equals(remappedShadowName) && method.name.equals(shadowName)) {
-                        for (String itf : node.interfaces) {
-                            assert itf != null;
-                            if (!this.forbidRemappingInterfaceMembers(itf, targets)) {
-                                continue;
-                            }
-
-                            if (this.lister.hasMemberInHierarchy(itf, method.name, method.desc)) {
-                                throw new IllegalMixinException("Attempt to @Shadow method " + node.name + "." + method.name + method.desc + " which is provided by the interface " + itf
-                                        + ". The interface does not allow remapping it's members (see MicromixinRemapper#forbidRemappingInterfaceMembers). Potential ways of resolving this issue include:\n"
-                                        + "\t1. Rename the method in the interface or alter it's descriptor.\n"
-                                        + "\t2. Do not implement the interface in the mixin.\n"
-                                        + "\t3. Use an @Invoker (not supported by micromixin as of April 2024)\n"
-                                        + "\t4. Use @Intrinsic (not supported by micromixin as of April 2024)\n"
-                                        + "\t5. Use @Unique with silent = true\n"
-                                        + "\t6. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
-                            }
+                try {
+                    MethodAnnotationHandler handler = this.methodHandlers.get(annot.desc);
+                    if (handler == null) {
+                        if (annot.desc.startsWith("Lorg/spongepowered/asm/mixin/")
+                                || annot.desc.startsWith("Lcom/llamalad7/mixinextras/injector/")
+                                || annot.desc.startsWith("Lorg/stianloader/micromixin/annotations/")) {
+                            this.logUnimplementedFeature("Unknown mixin annotation on method " + node.name + "." + method.name + method.desc + ": " + annot.desc);
                         }
+                        continue;
                     }
 
-                    if (remappedShadowName != null) {
-                        String remappedName = (method.access & Opcodes.ACC_STATIC) == 0 ? remapPrefix + remappedShadowName : remappedShadowName;
-                        this.sink.remapMember(new MemberRef(node.name, method.name, method.desc), remappedName);
-                    }
-                } else if (annot.desc.equals("Lorg/spongepowered/asm/mixin/Unique;")) {
                     if (mainAnnotation != null) {
                         throw new IllegalMixinException("Illegal mixin method " + node.name + "." + method.name + method.desc + ": The mixin handler is annotated with two or more incompatible annotations: " + mainAnnotation + " and " + annot.desc);
                     }
                     mainAnnotation = annot.desc;
-                    for (int i = 0; annot.values != null && i < annot.values.size(); i += 2) {
-                        String name = (String) annot.values.get(i);
-                        if (!name.equals("silent")) {
-                            this.logUnimplementedFeature("Unimplemented key in @Unique: " + name + " within node " + node.name);
-                        }
-                    }
 
-                    // @Unique requires no further changes
-                } else if (annot.desc.equals("Lorg/spongepowered/asm/mixin/Overwrite;")) {
-                    if (mainAnnotation != null) {
-                        throw new IllegalMixinException("Illegal mixin method " + node.name + "." + method.name + method.desc + ": The mixin handler is annotated with two or more incompatible annotations: " + mainAnnotation + " and " + annot.desc);
+                    long startTime = metrics == null ? 0L : System.nanoTime();
+                    handler.remapMethodAnnotation(this, node, method, annot, targets, sink);
+                    if (metrics != null) {
+                        metrics.onAnnotationProcessed(annot.desc, System.nanoTime() - startTime);
                     }
-                    mainAnnotation = annot.desc;
-                    this.handleOverwrite(annot, targets, node, method);
-                } else {
-                    AnnotationRemapper remapper = AnnotationRemapper.ANNOTATION_REMAPPERS.get(annot.desc);
-                    if (remapper != null) {
-                        if (mainAnnotation != null) {
-                            throw new IllegalMixinException("Illegal mixin method " + node.name + "." + method.name + method.desc + ": The mixin handler is annotated with two or more incompatible annotations: " + mainAnnotation + " and " + annot.desc);
-                        }
-                        mainAnnotation = annot.desc;
-                        remapper.remapAnnotation(new RemapContext(this, node.name, method, targets), annot);
-                    } else {
-                        this.logUnimplementedFeature("Unknown mixin annotation on method " + node.name + "." + method.name + method.desc + ": " + annot.desc);
+                } catch (IllegalMixinException | MissingFeatureException e) {
+                    if (diagnostics == null) {
+                        throw e;
                     }
+                    diagnostics.report(e);
                 }
             }
         }
 
         if (mainAnnotation == null) {
-            this.handleOverwrite(null, targets, node, method);
+            if (diagnostics != null) {
+                diagnostics.setLocation(method.name, method.desc, null);
+            }
+            try {
+                this.handleOverwrite(null, targets, node, method, sink);
+            } catch (IllegalMixinException | MissingFeatureException e) {
+                if (diagnostics == null) {
+                    throw e;
+                }
+                diagnostics.report(e);
+            }
         }
     }
 
     @Internal
-    public void remapMethodSelectorList(List<?> selectors, @NotNull String originName, MethodNode originMethod, @NotNull Collection<String> targets, @Nullable Predicate<@NotNull String> inferredDescriptorPredicate) throws IllegalMixinException, MissingFeatureException {
+    public void remapMethodSelectorList(@NotNull RemapContext ctx, List<?> selectors, @Nullable Predicate<@NotNull String> inferredDescriptorPredicate) throws IllegalMixinException, MissingFeatureException {
         @SuppressWarnings("unchecked")
         ListIterator<Object> it = (ListIterator<Object>) selectors.listIterator();
         while (it.hasNext()) {
@@ -729,84 +1262,208 @@ public class MicromixinRemapper {
             Object o = it.next();
 
             if (o instanceof AnnotationNode) {
-                this.remapDescAnnotation("Error while remapping @Desc selector in method " + originName + "." + originMethod.name + originMethod.desc + ", index " + idx + ": ", targets, (AnnotationNode) o, false);
+                Supplier<@NotNull String> errorPrefix = () -> {
+                    return "Error while remapping @Desc selector in method " + ctx.mixinClassName + "." + ctx.mixinMethod.name + ctx.mixinMethod.desc + ", index " + idx + ": ";
+                };
+                this.remapDescAnnotation(errorPrefix, ctx.mixinClassName, ctx.targets, (AnnotationNode) o, false);
+            } else {
+                Supplier<@NotNull String> errorPrefix = () -> {
+                    return "Error while remapping target selector in method " + ctx.mixinClassName + "." + ctx.mixinMethod.name + ctx.mixinMethod.desc + ", index " + idx + ": ";
+                };
+                it.set((Object) this.remapTargetSelector(errorPrefix, ctx.mixinClassName, (String) o, ctx.targets, inferredDescriptorPredicate));
+            }
+        }
+    }
+
+    private void remapShadowField(@NotNull ClassNode node, @NotNull FieldNode field, @NotNull AnnotationNode annot, @NotNull Collection<@NotNull String> targets, @NotNull MappingSink sink) throws MissingFeatureException, IllegalMixinException {
+        String remapPrefix = "shadow$";
+        for (int i = 0; annot.values != null && i < annot.values.size(); i += 2) {
+            String name = (String) annot.values.get(i);
+            Object value = annot.values.get(i + 1);
+            if (name.equals("prefix")) {
+                remapPrefix = (String) value;
+            } else if (name.equals("aliases")) {
+                @SuppressWarnings("unchecked")
+                List<String> aliases = (List<String>) (List<?>) value;
+                for (int j = 0; j < aliases.size(); j++) {
+                    String alias = aliases.get(j);
+                    assert alias != null;
+                    String remappedAlias = null;
+                    for (String target : this.lister.filterMemberInHierarchy(targets, alias, field.desc)) {
+                        String remappedName = this.lookup.getRemappedFieldName(target, alias, field.desc);
+                        if (remappedAlias != null && !remappedAlias.equals(remappedName)) {
+                            throw new IllegalMixinException("Disjoint mapping names while trying to remap alias for @Shadow-annotated field: " + node.name + "." + field.name + ":" + field.desc
+                                    + ". This is likely caused by different target classes having different names for the shadowed member. Potential ways of resolving this issue include:\n"
+                                    + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
+                                    + "\t2. Use an @Accessor (not supported by micromixin as of April 2024)\n"
+                                    + "\t3. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
+                        }
+                        remappedAlias = remappedName;
+                    }
+                    if (remappedAlias != null) {
+                        aliases.set(j, remappedAlias);
+                    }
+                }
+            } else {
+                this.logUnimplementedFeature("Unimplemented key in @Shadow: " + name + " within node " + node.name);
+            }
+        }
+
+        String shadowName = field.name;
+        boolean prefixed = field.name.startsWith(remapPrefix);
+        if (prefixed) {
+            shadowName = field.name.substring(remapPrefix.length());
+        }
+
+        String remappedShadowName = null;
+        for (String target : targets) {
+            String targetRemapped = this.lookup.getRemappedFieldName(target, shadowName, field.desc);
+            if (remappedShadowName != null && !remappedShadowName.equals(targetRemapped)) {
+                throw new IllegalMixinException("Disjoint mapping names while trying to remap name of @Shadow-annotated field: " + node.name + "." + field.name + ":" + field.desc
+                        + ". This is likely caused by different target classes having different names for the shadowed member. Potential ways of resolving this issue include:\n"
+                        + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
+                        + "\t2. Use an @Accessor (not supported by micromixin as of April 2024)\n"
+                        + "\t3. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
+            }
+            remappedShadowName = targetRemapped;
+        }
+
+        if (remappedShadowName != null) {
+            if (prefixed) {
+                remappedShadowName = remapPrefix + remappedShadowName;
+            }
+            sink.remapMember(new MemberRef(node.name, field.name, field.desc), remappedShadowName);
+        }
+    }
+
+    private void remapShadowMethod(@NotNull ClassNode node, @NotNull MethodNode method, @NotNull AnnotationNode annot, @NotNull Collection<@NotNull String> targets, @NotNull MappingSink sink) throws MissingFeatureException, IllegalMixinException {
+        String remapPrefix = (method.access & Opcodes.ACC_STATIC) == 0 ? "shadow$" : null;
+        for (int i = 0; annot.values != null && i < annot.values.size(); i += 2) {
+            String name = (String) annot.values.get(i);
+            Object value = annot.values.get(i + 1);
+            if (name.equals("prefix")) {
+                if ((method.access & Opcodes.ACC_STATIC) != 0) {
+                    this.logUnimplementedFeature("The static @Shadow-annotated mixin method " + node.name + "." + method.name + method.desc + " defines a prefix.  However, due to a bug in the spongeian mixin implementation INVOKESTATIC calls will not be redirected to the non-prefixed member you are targetting, effectively causing a crash at runtime. At this point in time micromixin-transformer replicates this issue, but this behaviour is subject to change.");
+                }
+                remapPrefix = (String) value;
+            } else if (name.equals("aliases")) {
+                @SuppressWarnings("unchecked")
+                List<String> aliases = (List<String>) (List<?>) value;
+                for (int j = 0; j < aliases.size(); j++) {
+                    String alias = aliases.get(j);
+                    assert alias != null;
+                    String remappedAlias = null;
+                    for (String target : this.lister.filterMemberInHierarchy(targets, alias, method.desc)) {
+                        String remappedName = this.lookup.getRemappedMethodName(target, alias, method.desc);
+                        if (remappedAlias != null && !remappedAlias.equals(remappedName)) {
+                            throw new IllegalMixinException("Disjoint mapping names while trying to remap alias for @Shadow-annotated method: " + node.name + "." + method.name + method.desc
+                                    + ". This is likely caused by different target classes having different names for the shadowed member. Potential ways of resolving this issue include:\n"
+                                    + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
+                                    + "\t2. Use an @Invoker (not supported by micromixin as of April 2024)\n"
+                                    + "\t3. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
+                        }
+                        remappedAlias = remappedName;
+                    }
+                    if (remappedAlias != null) {
+                        aliases.set(j, remappedAlias);
+                    }
+                }
             } else {
-                it.set((Object) this.remapTargetSelector("Error while remapping target selector in method " + originName + "." + originMethod.name + originMethod.desc + ", index " + idx + ": ", (String) o, targets, inferredDescriptorPredicate));
+                this.logUnimplementedFeature("Unimplemented key in @Shadow: " + name + " within node " + node.name);
+            }
+        }
+
+        String shadowName = method.name;
+        if (remapPrefix != null && method.name.startsWith(remapPrefix)) {
+            shadowName = method.name.substring(remapPrefix.length());
+        }
+
+        String remappedShadowName = null;
+        for (String target : targets) {
+            String targetRemapped = this.lookup.getRemappedMethodName(target, shadowName, method.desc);
+            if (remappedShadowName != null && !remappedShadowName.equals(targetRemapped)) {
+                throw new IllegalMixinException("Disjoint mapping names while trying to remap name of @Shadow-annotated method: " + node.name + "." + method.name + method.desc
+                        + ". This is likely caused by different target classes having different names for the shadowed member. Potential ways of resolving this issue include:\n"
+                        + "\t1. Splitting the mixin class so that each target class has it's own mixin.\n"
+                        + "\t2. Use an @Invoker (not supported by micromixin as of April 2024)\n"
+                        + "\t3. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
             }
+            remappedShadowName = targetRemapped;
+        }
+
+        if (remappedShadowName != null && !shadowName.equals(remappedShadowName) && method.name.equals(shadowName)) {
+            for (String itf : node.interfaces) {
+                assert itf != null;
+                if (!this.forbidRemappingInterfaceMembers(itf, targets)) {
+                    continue;
+                }
+
+                if (this.lister.hasMemberInHierarchy(itf, method.name, method.desc)) {
+                    throw new IllegalMixinException("Attempt to @Shadow method " + node.name + "." + method.name + method.desc + " which is provided by the interface " + itf
+                            + ". The interface does not allow remapping it's members (see MicromixinRemapper#forbidRemappingInterfaceMembers). Potential ways of resolving this issue include:\n"
+                            + "\t1. Rename the method in the interface or alter it's descriptor.\n"
+                            + "\t2. Do not implement the interface in the mixin.\n"
+                            + "\t3. Use an @Invoker (not supported by micromixin as of April 2024)\n"
+                            + "\t4. Use @Intrinsic (not supported by micromixin as of April 2024)\n"
+                            + "\t5. Use @Unique with silent = true\n"
+                            + "\t6. Report this behaviour as unintended to the micromixin-remapper developers (please also include the mixin itself and a short statement on why the behaviour should change)");
+                }
+            }
+        }
+
+        if (remappedShadowName != null) {
+            String remappedName = (method.access & Opcodes.ACC_STATIC) == 0 ? remapPrefix + remappedShadowName : remappedShadowName;
+            sink.remapMember(new MemberRef(node.name, method.name, method.desc), remappedName);
         }
     }
 
     @Internal
-    public void remapSlice(@NotNull String owner, @NotNull String member, int ordinal, @NotNull Collection<String> targets, AnnotationNode annot) throws IllegalMixinException, MissingFeatureException {
+    public void remapSlice(@NotNull RemapContext ctx, int ordinal, AnnotationNode annot) throws IllegalMixinException, MissingFeatureException {
         for (int i = 0; i < annot.values.size(); i += 2) {
             switch ((String) annot.values.get(i)) {
             case "from":
             case "to":
-                this.remapAt(owner, member + ".slice[" + ordinal + "]", annot.values.get(i).equals("from") ? 0 : 1, targets, (AnnotationNode) annot.values.get(i + 1));
+                Supplier<@NotNull String> member = () -> ctx.mixinMethod.name + ctx.mixinMethod.desc + ".slice[" + ordinal + "]";
+                this.remapAt(ctx, member, annot.values.get(i).equals("from") ? 0 : 1, (AnnotationNode) annot.values.get(i + 1));
                 break;
             case "id":
                 break;
             default:
-                this.logUnimplementedFeature("Unknown annotation element for @Slice found in " + owner + "." + member + "[" + ordinal + "]: " + annot.values.get(i));
+                this.logUnimplementedFeature("Unknown annotation element for @Slice found in " + ctx.mixinClassName + "." + ctx.mixinMethod.name + ctx.mixinMethod.desc + "[" + ordinal + "]: " + annot.values.get(i));
             }
         }
     }
 
     @NotNull
-    private String remapTargetSelector(@NotNull String errorPrefix, String targetSelector, @Nullable Collection<@NotNull String> targets, @Nullable Predicate<@NotNull String> inferredDescriptorPredicate) throws MissingFeatureException, IllegalMixinException {
-        {
-            StringBuilder purged = new StringBuilder();
-            for (int i = 0; i < targetSelector.length(); i++) {
-                int codepoint = targetSelector.codePointAt(i);
-                if (!Character.isWhitespace(codepoint)) {
-                    purged.appendCodePoint(codepoint);
-                }
-            }
-            targetSelector = purged.toString();
+    private String remapTargetSelector(@NotNull Supplier<@NotNull String> errorPrefix, @NotNull String mixinClassName, String targetSelector, @Nullable Collection<@NotNull String> targets, @Nullable Predicate<@NotNull String> inferredDescriptorPredicate) throws MissingFeatureException, IllegalMixinException {
+        String originalSelector = targetSelector;
+        ParsedSelector parsed = new ParsedSelector();
+        try {
+            parsed.parse(targetSelector);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalMixinException(errorPrefix.get() + e.getMessage());
         }
-
-        int colonIndex = targetSelector.indexOf(':');
-        int semicolonIndex = targetSelector.indexOf(';');
-        int descStartIndex = targetSelector.indexOf('(');
-        int endName;
-        int startName;
-
-        if (colonIndex >= 0) {
-            if (descStartIndex >= 0) {
-                throw new IllegalMixinException(errorPrefix + "The usage of the colon (':') indicates a field string, but the target selector contains a '(', which is an illegal character within field selectors.");
+        targetSelector = parsed.getSelector();
+
+        BoundedCache<@NotNull SelectorCacheKey, @NotNull String> selectorCache = this.selectorCache;
+        SelectorCacheKey cacheKey = null;
+        if (selectorCache != null) {
+            cacheKey = new SelectorCacheKey(targetSelector, targets, inferredDescriptorPredicate);
+            // A cached resolution does not reveal the mappings it depends on
+            String cached = DependencyRecorder.getActive() == null ? selectorCache.get(cacheKey) : null;
+            if (cached != null) {
+                this.recordSelectorOutcome(SelectorOutcome.CACHED);
+                this.recordResolution(mixinClassName, originalSelector, cached);
+                return cached;
             }
-            descStartIndex = colonIndex + 1;
         }
 
         @Nullable
-        String owner;
+        String owner = parsed.getOwner();
         @Nullable
-        String name;
+        String name = parsed.getName();
         @Nullable
-        String desc;
-
-        if (semicolonIndex != -1 && (descStartIndex == -1 || semicolonIndex < descStartIndex)) {
-            owner = targetSelector.substring(1, semicolonIndex);
-            startName = semicolonIndex + 1;
-        } else {
-            owner = null;
-            startName = 0;
-        }
-        if (descStartIndex == -1) {
-            desc = null;
-            endName = targetSelector.length();
-        } else {
-            desc = targetSelector.substring(descStartIndex);
-            endName = descStartIndex;
-            if (colonIndex >= 0) {
-                endName--;
-            }
-        }
-        if (endName > startName) {
-            name = targetSelector.substring(startName, endName);
-        } else {
-            name = null;
-        }
+        String desc = parsed.getDesc();
 
         inferMember:
         if (targets != null) {
@@ -824,57 +1481,59 @@ public class MicromixinRemapper {
             String remappedDesc = null;
             boolean tornDesc = false;
 
-            List<MemberRef> allReferences = new ArrayList<>();
-            StringBuilder builder = new StringBuilder();
-            for (String ownerType : targets) {
-                Collection<MemberRef> references = this.lister.tryInferMember(ownerType, name, desc);
-                for (MemberRef ref : references) {
-                    if (inferredDescriptorPredicate != null && !inferredDescriptorPredicate.test(ref.getDesc())) {
-                        continue;
-                    } else {
-                        allReferences.add(ref);
-                    }
-                    String memberOwner = this.lookup.getRemappedClassName(ref.getOwner());
-                    String memberName;
-                    String memberDesc;
-                    if (ref.getDesc().codePointAt(0) == '(') {
-                        memberName = this.lookup.getRemappedMethodName(ref.getOwner(), ref.getName(), ref.getDesc());
-                        memberDesc = Remapper.getRemappedMethodDescriptor(this.lookup, ref.getDesc(), builder);
-                    } else {
-                        memberName = this.lookup.getRemappedFieldName(ref.getOwner(), ref.getName(), ref.getDesc());
-                        memberDesc = Remapper.getRemappedFieldDescriptor(this.lookup, ref.getDesc(), builder);
-                    }
+            List<@NotNull MemberRef> allReferences = this.inferCandidates(targetSelector, targets, name, desc, inferredDescriptorPredicate);
+            for (MemberRef ref : allReferences) {
+                String memberOwner = this.lookup.getRemappedClassName(ref.getOwner());
+                String memberName;
+                String memberDesc;
+                if (ref.getDesc().codePointAt(0) == '(') {
+                    memberName = this.lookup.getRemappedMethodName(ref.getOwner(), ref.getName(), ref.getDesc());
+                    memberDesc = this.getRemappedDescriptor(ref.getDesc());
+                } else {
+                    memberName = this.lookup.getRemappedFieldName(ref.getOwner(), ref.getName(), ref.getDesc());
+                    memberDesc = this.getRemappedDescriptor(ref.getDesc());
+                }
 
-                    if (remappedOwner == null) {
-                        remappedOwner = memberOwner;
-                    } else if (!remappedOwner.equals(memberOwner)) {
-                        tornOwner = true;
-                    }
-                    if (remappedName == null) {
-                        remappedName = memberName;
-                    } else if (!remappedName.equals(memberName)) {
-                        tornName = true;
-                    }
-                    if (remappedDesc == null) {
-                        remappedDesc = memberDesc;
-                    } else if (!remappedDesc.equals(memberDesc)) {
-                        tornDesc = true;
-                    }
+                if (remappedOwner == null) {
+                    remappedOwner = memberOwner;
+                } else if (!remappedOwner.equals(memberOwner)) {
+                    tornOwner = true;
+                }
+                if (remappedName == null) {
+                    remappedName = memberName;
+                } else if (!remappedName.equals(memberName)) {
+                    tornName = true;
+                }
+                if (remappedDesc == null) {
+                    remappedDesc = memberDesc;
+                } else if (!remappedDesc.equals(memberDesc)) {
+                    tornDesc = true;
                 }
             }
 
             if (remappedDesc != null) {
                 assert remappedName != null;
                 assert remappedOwner != null;
+                SelectorOutcome outcome = SelectorOutcome.INFERRED;
                 if (tornOwner || tornName || tornDesc) {
-                    this.logUnimplementedFeature(errorPrefix + "The provided explicit target selector string is not fully qualified (that is the member either lacks a name, descriptor or owner or a combination thereof) and one of the missing components have torn mappings. Without the fully qualified member, the selector string cannot be adequately renamed as the actually targetted member is highly context-dependent. As such, this feature is not properly supported in micromixin-remapper. Potential ways of mitigating this issue involve: Implementing this feature yourself, using the fully qualified target selector or using @Desc (@Desc has more strongly defined behaviour when it comes to unspecified parts of the selector, but may not be recommended in most toolchains. However it's use is acceptable and even recommended within the stianloader toolchain - while minecraft-specific toolchains generally advise against the use of @Desc).\n\nList of all candidate references (for debugging purposes:)" + allReferences);
+                    cacheKey = null;
+                    outcome = SelectorOutcome.TORN;
+                    this.logUnimplementedFeature(errorPrefix.get() + "The provided explicit target selector string is not fully qualified (that is the member either lacks a name, descriptor or owner or a combination thereof) and one of the missing components have torn mappings. Without the fully qualified member, the selector string cannot be adequately renamed as the actually targetted member is highly context-dependent. As such, this feature is not properly supported in micromixin-remapper. Potential ways of mitigating this issue involve: Implementing this feature yourself, using the fully qualified target selector or using @Desc (@Desc has more strongly defined behaviour when it comes to unspecified parts of the selector, but may not be recommended in most toolchains. However it's use is acceptable and even recommended within the stianloader toolchain - while minecraft-specific toolchains generally advise against the use of @Desc).\n\nList of all candidate references (for debugging purposes:)" + allReferences);
                 }
-                builder.setLength(0);
+                StringBuilder builder = new StringBuilder();
                 builder.appendCodePoint('L').append(remappedOwner).appendCodePoint(';');
                 builder.append(remappedName);
                 builder.appendCodePoint(remappedDesc.codePointAt(0) != '(' ? ':' : ' ');
                 builder.append(remappedDesc);
-                return builder.toString();
+                String remapped = builder.toString();
+                if (cacheKey != null) {
+                    selectorCache.put(cacheKey.detach(), remapped);
+                }
+                this.recordSelectorOutcome(outcome);
+                if (outcome == SelectorOutcome.INFERRED) {
+                    this.recordResolution(mixinClassName, originalSelector, remapped);
+                }
+                return remapped;
             }
         }
 
@@ -891,8 +1550,8 @@ public class MicromixinRemapper {
                 inferrenceMeta += "\n  Unable to list candidate members: Target(s) of mixin class unknown and the target class was not explicitly defined.";
             } else {
                 Set<MemberRef> inferredRefs = new LinkedHashSet<>();
-                for (String target : targets) {
-                    inferredRefs.addAll(this.lister.tryInferMember(target, name, desc));
+                for (Collection<MemberRef> references : this.lister.tryInferMembers(targets, name, desc).values()) {
+                    inferredRefs.addAll(references);
                 }
                 inferrenceMeta += "\n  Listed candidate members: " + inferredRefs;
                 try {
@@ -911,7 +1570,8 @@ public class MicromixinRemapper {
                 }
             }
 
-            this.logUnimplementedFeature(errorPrefix + "The provided explicit target selector string is not fully qualified (that is the member either lacks a name, descriptor or owner or a combination thereof). Without the fully qualified member, the selector string cannot be adequately renamed as the actually targetted member is highly context-dependent. As such, this feature is not supported in micromixin-remapper (but it is supported in micromixin-transformer and other mixin implementations!). Potential ways of mitigating this issue involve: Implementing this feature yourself, using the fully qualified target selector or using @Desc (@Desc has more strongly defined behaviour when it comes to unspecified parts of the selector, but may not be recommended in most toolchains. However it's use is acceptable and even recommended within the stianloader toolchain - while minecraft-specific toolchains generally advise against the use of @Desc).\nInferrence metainformation:\n" + inferrenceMeta);
+            this.logUnimplementedFeature(errorPrefix.get() + "The provided explicit target selector string is not fully qualified (that is the member either lacks a name, descriptor or owner or a combination thereof). Without the fully qualified member, the selector string cannot be adequately renamed as the actually targetted member is highly context-dependent. As such, this feature is not supported in micromixin-remapper (but it is supported in micromixin-transformer and other mixin implementations!). Potential ways of mitigating this issue involve: Implementing this feature yourself, using the fully qualified target selector or using @Desc (@Desc has more strongly defined behaviour when it comes to unspecified parts of the selector, but may not be recommended in most toolchains. However it's use is acceptable and even recommended within the stianloader toolchain - while minecraft-specific toolchains generally advise against the use of @Desc).\nInferrence metainformation:\n" + inferrenceMeta);
+            this.recordSelectorOutcome(SelectorOutcome.UNRESOLVED);
             return targetSelector;
         }
 
@@ -924,8 +1584,100 @@ public class MicromixinRemapper {
         } else {
             remapped.append(this.lookup.getRemappedFieldName(owner, name, desc)).appendCodePoint(':');
         }
-        Remapper.remapSignature(this.lookup, desc, remapped);
+        remapped.append(this.getRemappedDescriptor(desc));
+
+        String remappedSelector = remapped.toString();
+        if (cacheKey != null) {
+            selectorCache.put(cacheKey.detach(), remappedSelector);
+        }
+        this.recordSelectorOutcome(SelectorOutcome.QUALIFIED);
+        this.recordResolution(mixinClassName, originalSelector, remappedSelector);
+        return remappedSelector;
+    }
+
+    private void remapUnique(@NotNull ClassNode node, @NotNull AnnotationNode annot) throws MissingFeatureException {
+        for (int i = 0; annot.values != null && i < annot.values.size(); i += 2) {
+            String name = (String) annot.values.get(i);
+            if (!name.equals("silent")) {
+                this.logUnimplementedFeature("Unimplemented key in @Unique: " + name + " within node " + node.name);
+            }
+        }
+
+        // @Unique requires no further changes
+    }
+
+    /**
+     * Set the {@link MixinDependencyIndex} into which the dependencies of every class remapped from now on are
+     * recorded, or stop recording dependencies. The dependencies of a class are only recorded if it was remapped
+     * without an exception being thrown.
+     *
+     * <p>While dependencies are recorded, the {@link MappingLookup} supplied through the constructor is wrapped
+     * in order to record the queries issued to it and resolutions cached through {@link #enableSelectorCache(int)}
+     * are not reused. Classes whose outcome is replayed from a {@link RemapCache} or a {@link RemapManifest}
+     * are not recorded.
+     *
+     * <p>This method must not be called while classes are being remapped.
+     *
+     * @param index The index to record dependencies into, or null to stop recording.
+     */
+    public void setDependencyIndex(@Nullable MixinDependencyIndex index) {
+        this.dependencyIndex = index;
+        this.updateLookup();
+    }
+
+    /**
+     * Install a {@link RemapMetricsListener} which is notified about the work performed by this remapper,
+     * or remove the currently installed listener.
+     *
+     * <p>While a listener is installed, the {@link MappingLookup} and {@link MemberLister} supplied through the
+     * constructor are wrapped in order to count the queries issued to them. When no listener is installed
+     * the supplied instances are used directly, so no overhead is incurred.
+     *
+     * <p>This method must not be called while classes are being remapped.
+     *
+     * @param listener The listener to install, or null to remove the current listener.
+     * @see RemapMetrics
+     */
+    public void setMetricsListener(@Nullable RemapMetricsListener listener) {
+        this.metricsListener = listener;
+        if (listener == null) {
+            this.lister = this.baseLister;
+        } else {
+            this.lister = new CountingMemberLister(this.baseLister, listener);
+        }
+        this.updateLookup();
+    }
+
+    void setSharedInference(@Nullable SharedInference sharedInference) {
+        this.sharedInference = sharedInference;
+    }
 
-        return remapped.toString();
+    /**
+     * Set the {@link SelectorResolutionTable} into which successfully resolved target selectors
+     * (including <code>&#64;At.target</code>) and <code>&#64;Desc</code> annotations are recorded.
+     * Selectors that could not be resolved unambiguously are not recorded.
+     *
+     * <p>Classes whose outcome is replayed by a {@link RemapCache} are recorded as well, as the resolutions are stored
+     * alongside the cached outcome. {@link #remapClassTransactional(ClassNode)} only records the resolutions of a class
+     * once it was remapped successfully, while other methods record resolutions as soon as they are made, so that
+     * a class failing to be remapped may leave partial entries behind. Resolutions stored in a {@link RemapManifest}
+     * are replayed through {@link RemapManifest#replay(ClassNode, MappingSink, SelectorResolutionTable)}.
+     *
+     * @param table The table to record resolutions into, or null to stop recording.
+     */
+    public void setResolutionTable(@Nullable SelectorResolutionTable table) {
+        this.resolutionTable = table;
+    }
+
+    private void updateLookup() {
+        MappingLookup lookup = this.baseLookup;
+        if (this.dependencyIndex != null) {
+            lookup = new DependencyRecordingLookup(lookup);
+        }
+        RemapMetricsListener listener = this.metricsListener;
+        if (listener != null) {
+            lookup = new CountingMappingLookup(lookup, listener);
+        }
+        this.lookup = lookup;
     }
 }
@@ -1,6 +1,7 @@
 package org.stianloader.micromixin.remapper;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.tree.AnnotationNode;
 
 /**
@@ -22,4 +23,30 @@ public class MissingFeatureException extends Exception {
     public MissingFeatureException(@NotNull String description) {
         super(description);
     }
+
+    /**
+     * Constructor. Creates an {@link Exception} with the supplied detail message and cause.
+     *
+     * @param description The detail message to pass to the superconstructor
+     * @param cause The cause of the exception
+     * @see Throwable#getMessage()
+     * @see Throwable#getCause()
+     */
+    public MissingFeatureException(@NotNull String description, @Nullable Throwable cause) {
+        super(description, cause);
+    }
+
+    /**
+     * Fill in the stack trace of the exception. Just like for {@link IllegalMixinException#fillInStackTrace()},
+     * no stack trace is captured while the remapper is collecting diagnostics.
+     *
+     * @return This exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        if (DiagnosticCollector.getActive() != null) {
+            return this;
+        }
+        return super.fillInStackTrace();
+    }
 }
@@ -0,0 +1,122 @@
+package org.stianloader.micromixin.remapper;
+
+import java.nio.charset.StandardCharsets;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * Utility for cheaply checking whether a class file is a mixin class, that is whether it carries the
+ * <code>&#64;Mixin</code> class annotation. This allows to only build {@link ClassNode} trees (and to only
+ * call {@link MicromixinRemapper#remapClass(ClassNode)}) for actual mixin classes.
+ *
+ * <p>The check is done in two steps: First the constant pool is probed for the descriptor of <code>&#64;Mixin</code>.
+ * As the descriptor must be present in the constant pool of every mixin class, the vast majority of non-mixin
+ * classes are rejected by this probe alone. Should the descriptor be present, the class annotations are
+ * visited in order to confirm that the descriptor is in fact used by an invisible class annotation.
+ * Fields, methods and their code are not visited.
+ */
+public final class MixinClassScanner {
+
+    private static final class AnnotationCollector extends ClassVisitor {
+        private boolean mixin;
+
+        private AnnotationCollector() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            if (!visible && descriptor.equals(MixinClassScanner.MIXIN_DESCRIPTOR)) {
+                this.mixin = true;
+            }
+            return null;
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            return null;
+        }
+    }
+
+    private static final int CONSTANT_UTF8 = 1;
+
+    @NotNull
+    private static final String MIXIN_DESCRIPTOR = "Lorg/spongepowered/asm/mixin/Mixin;";
+
+    private static final byte @NotNull[] MIXIN_DESCRIPTOR_BYTES = MixinClassScanner.MIXIN_DESCRIPTOR.getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Check whether the constant pool of the class contains the descriptor of <code>&#64;Mixin</code>.
+     * A class whose constant pool does not contain the descriptor cannot be a mixin class, but the reverse does
+     * not hold: The class may reference the annotation in other ways, for example in a string constant.
+     *
+     * @param reader The {@link ClassReader} of the class.
+     * @return True if the class may be a mixin, false if it definitely is not a mixin.
+     */
+    @Contract(pure = true)
+    public static boolean hasMixinConstant(@NotNull ClassReader reader) {
+        byte[] expected = MixinClassScanner.MIXIN_DESCRIPTOR_BYTES;
+        int itemCount = reader.getItemCount();
+        outer:
+        for (int i = 1; i < itemCount; i++) {
+            int offset = reader.getItem(i);
+            // The second slot of long and double constants has no offset
+            if (offset == 0 || reader.readByte(offset - 1) != MixinClassScanner.CONSTANT_UTF8
+                    || reader.readUnsignedShort(offset) != expected.length) {
+                continue;
+            }
+            offset += 2;
+            for (int j = 0; j < expected.length; j++) {
+                if (reader.readByte(offset + j) != expected[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the class file is a mixin class. See {@link #isMixin(ClassReader)}.
+     *
+     * @param classFile The bytes of the class file.
+     * @return True if the class is annotated with <code>&#64;Mixin</code>.
+     */
+    @Contract(pure = true)
+    public static boolean isMixin(byte @NotNull[] classFile) {
+        return MixinClassScanner.isMixin(new ClassReader(classFile));
+    }
+
+    /**
+     * Check whether the class read by the given {@link ClassReader} is annotated with <code>&#64;Mixin</code>.
+     *
+     * @param reader The {@link ClassReader} of the class.
+     * @return True if the class is annotated with <code>&#64;Mixin</code>.
+     */
+    @Contract(pure = true)
+    public static boolean isMixin(@NotNull ClassReader reader) {
+        if (!MixinClassScanner.hasMixinConstant(reader)) {
+            return false;
+        }
+        AnnotationCollector collector = new AnnotationCollector();
+        reader.accept(collector, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return collector.mixin;
+    }
+
+    private MixinClassScanner() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,159 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.tree.ClassNode;
+import org.stianloader.remapper.MappingLookup;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * An index of the source namespace classes, fields and methods whose mappings each mixin class depends on.
+ * The index is filled by a {@link MicromixinRemapper} through {@link MicromixinRemapper#setDependencyIndex(MixinDependencyIndex)},
+ * which records every class and member the {@link MappingLookup} is queried for while remapping a class. This covers
+ * among others shadowed, overwritten and aliased members, target selectors, <code>&#64;Desc</code> and
+ * <code>&#64;At.target</code> annotations, <code>classValue</code> constants and the targets of the mixin.
+ *
+ * <p>When moving to a new release of the mappings, {@link #getChangedMixins(MappingLookup, MappingLookup)}
+ * determines the mixins whose dependencies are mapped differently by the new mappings. All other mixins would
+ * be remapped exactly the same way and do not need to be remapped again, provided that the mixin classes
+ * and the classes of the source namespace did not change.
+ *
+ * <p>Instances of this class are thread-safe.
+ */
+public class MixinDependencyIndex {
+
+    @NotNull
+    private final Map<@NotNull String, @NotNull DependencyRecorder> dependencies = new ConcurrentHashMap<>();
+
+    /**
+     * Check whether the dependencies of the mixin class with the given name were recorded.
+     *
+     * @param mixinClass The internal name of the mixin class.
+     * @return True if the class is part of the index, false otherwise.
+     */
+    public boolean contains(@NotNull String mixinClass) {
+        return this.dependencies.containsKey(mixinClass);
+    }
+
+    /**
+     * Obtain the internal names of the mixin classes whose dependencies are mapped differently by the new mappings
+     * compared to the old mappings. Both {@link MappingLookup MappingLookups} must map from the same source namespace.
+     * Every dependency is only looked up once, regardless of how many mixins depend on it.
+     *
+     * <p>Mixin classes that are not part of the index are never returned, even though they need to be remapped.
+     *
+     * @param oldLookup The mappings the index was recorded with.
+     * @param newLookup The new mappings.
+     * @return The sorted internal names of the mixin classes which need to be remapped again.
+     */
+    @NotNull
+    public Set<@NotNull String> getChangedMixins(@NotNull MappingLookup oldLookup, @NotNull MappingLookup newLookup) {
+        Objects.requireNonNull(oldLookup, "Supplied argument 'oldLookup' may not be null.");
+        Objects.requireNonNull(newLookup, "Supplied argument 'newLookup' may not be null.");
+
+        Map<@NotNull String, @NotNull Boolean> changedClasses = new HashMap<>();
+        Map<@NotNull MemberRef, @NotNull Boolean> changedFields = new HashMap<>();
+        Map<@NotNull MemberRef, @NotNull Boolean> changedMethods = new HashMap<>();
+        Set<@NotNull String> changedMixins = new TreeSet<>();
+
+        mixins:
+        for (Map.Entry<@NotNull String, @NotNull DependencyRecorder> entry : this.dependencies.entrySet()) {
+            DependencyRecorder recorder = entry.getValue();
+            for (String name : recorder.classes) {
+                if (changedClasses.computeIfAbsent(name, (ignore) -> !oldLookup.getRemappedClassName(name).equals(newLookup.getRemappedClassName(name)))) {
+                    changedMixins.add(entry.getKey());
+                    continue mixins;
+                }
+            }
+            for (MemberRef ref : recorder.fields) {
+                if (changedFields.computeIfAbsent(ref, (ignore) -> !oldLookup.getRemappedFieldName(ref.getOwner(), ref.getName(), ref.getDesc()).equals(newLookup.getRemappedFieldName(ref.getOwner(), ref.getName(), ref.getDesc())))) {
+                    changedMixins.add(entry.getKey());
+                    continue mixins;
+                }
+            }
+            for (MemberRef ref : recorder.methods) {
+                if (changedMethods.computeIfAbsent(ref, (ignore) -> !oldLookup.getRemappedMethodName(ref.getOwner(), ref.getName(), ref.getDesc()).equals(newLookup.getRemappedMethodName(ref.getOwner(), ref.getName(), ref.getDesc())))) {
+                    changedMixins.add(entry.getKey());
+                    continue mixins;
+                }
+            }
+        }
+
+        return changedMixins;
+    }
+
+    /**
+     * Obtain the classes whose names the mixin class depends on.
+     *
+     * @param mixinClass The internal name of the mixin class.
+     * @return An unmodifiable view of the internal names of the classes, empty if the mixin class is not part of the index.
+     */
+    @NotNull
+    public Set<@NotNull String> getClassDependencies(@NotNull String mixinClass) {
+        DependencyRecorder recorder = this.dependencies.get(mixinClass);
+        return recorder == null ? Collections.emptySet() : Collections.unmodifiableSet(recorder.classes);
+    }
+
+    /**
+     * Obtain the fields whose names the mixin class depends on.
+     *
+     * @param mixinClass The internal name of the mixin class.
+     * @return An unmodifiable view of the fields, empty if the mixin class is not part of the index.
+     */
+    @NotNull
+    public Set<@NotNull MemberRef> getFieldDependencies(@NotNull String mixinClass) {
+        DependencyRecorder recorder = this.dependencies.get(mixinClass);
+        return recorder == null ? Collections.emptySet() : Collections.unmodifiableSet(recorder.fields);
+    }
+
+    /**
+     * Obtain the methods whose names the mixin class depends on.
+     *
+     * @param mixinClass The internal name of the mixin class.
+     * @return An unmodifiable view of the methods, empty if the mixin class is not part of the index.
+     */
+    @NotNull
+    public Set<@NotNull MemberRef> getMethodDependencies(@NotNull String mixinClass) {
+        DependencyRecorder recorder = this.dependencies.get(mixinClass);
+        return recorder == null ? Collections.emptySet() : Collections.unmodifiableSet(recorder.methods);
+    }
+
+    /**
+     * Obtain the internal names of all mixin classes that are part of the index.
+     *
+     * @return An unmodifiable view of the names of the mixin classes.
+     */
+    @NotNull
+    public Set<@NotNull String> getMixinClasses() {
+        return Collections.unmodifiableSet(this.dependencies.keySet());
+    }
+
+    void record(@NotNull ClassNode node, @NotNull DependencyRecorder recorder) {
+        this.dependencies.put(node.name, recorder);
+    }
+
+    /**
+     * Remove a mixin class from the index, for example because it no longer exists.
+     *
+     * @param mixinClass The internal name of the mixin class.
+     */
+    public void remove(@NotNull String mixinClass) {
+        this.dependencies.remove(mixinClass);
+    }
+
+    /**
+     * Obtain the amount of mixin classes that are part of the index.
+     *
+     * @return The amount of mixin classes.
+     */
+    public int size() {
+        return this.dependencies.size();
+    }
+}
@@ -0,0 +1,142 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.tree.ClassNode;
+import org.stianloader.remapper.MappingLookup;
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * Remaps the same mixin classes into several destination namespaces at once. Each namespace is represented by
+ * it's own {@link MicromixinRemapper}, but the analysis performed in the source namespace is shared between them:
+ * All namespaces use a single {@link CachingMemberLister}, so that the member queries (such as those resolving
+ * <code>&#64;Shadow</code> and <code>&#64;Overwrite</code> aliases) are only answered once by the underlying
+ * {@link MemberLister}, and the candidate members inferred from target selectors are resolved and filtered once
+ * per selector. For every further namespace only the rewriting that depends on the
+ * {@link MappingLookup} of the namespace is performed, alongside reading the annotations themselves.
+ *
+ * <p>For every class, {@link #remapClass(ClassNode)} produces one remapped copy per namespace. The copies
+ * are made before any namespace is remapped, as {@link MicromixinRemapper#remapClass(ClassNode)} modifies the
+ * annotations in place. The mapping requests of all namespaces are buffered and only emitted to the respective
+ * {@link MappingSink MappingSinks} once the class was remapped into all namespaces successfully.
+ *
+ * <p>Instances of this class are not thread-safe, as namespaces may be added at any time.
+ */
+public class MultiNamespaceRemapper {
+
+    @NotNull
+    private final CachingMemberLister lister;
+    @NotNull
+    private final List<@NotNull MicromixinRemapper> namespaces = new ArrayList<>();
+    @NotNull
+    private final MicromixinRemapper.SharedInference sharedInference = new MicromixinRemapper.SharedInference(CachingMemberLister.DEFAULT_MAXIMUM_SIZE);
+
+    /**
+     * Constructor. Should the supplied {@link MemberLister} not be a {@link CachingMemberLister}, it is wrapped
+     * in a {@link CachingMemberLister} which also caches negative results, as every query is repeated once per namespace.
+     *
+     * @param lister The {@link MemberLister} of the source namespace.
+     */
+    public MultiNamespaceRemapper(@NotNull MemberLister lister) {
+        Objects.requireNonNull(lister, "Supplied argument 'lister' may not be null.");
+        if (lister instanceof CachingMemberLister) {
+            this.lister = (CachingMemberLister) lister;
+        } else {
+            this.lister = new CachingMemberLister(lister, CachingMemberLister.DEFAULT_MAXIMUM_SIZE, true);
+        }
+    }
+
+    /**
+     * Add a destination namespace. The returned {@link MicromixinRemapper} may be configured further,
+     * for example by enabling caches or by registering additional annotation handlers.
+     *
+     * @param lookup The {@link MappingLookup} mapping the source namespace to the destination namespace.
+     * @param sink The {@link MappingSink} to which the member renames of the namespace are emitted.
+     * @return The {@link MicromixinRemapper} of the namespace.
+     */
+    @NotNull
+    public MicromixinRemapper addNamespace(@NotNull MappingLookup lookup, @NotNull MappingSink sink) {
+        MicromixinRemapper remapper = new MicromixinRemapper(lookup, sink, this.lister);
+        remapper.setSharedInference(this.sharedInference);
+        this.namespaces.add(remapper);
+        return remapper;
+    }
+
+    /**
+     * Add a destination namespace that is remapped using an existing {@link MicromixinRemapper}, for example an
+     * instance of a subclass overriding {@link MicromixinRemapper#logUnimplementedFeature(String)}. The remapper
+     * must have been constructed with the {@link #getMemberLister() shared member lister}, as the analysis
+     * in the source namespace could not be shared otherwise.
+     *
+     * @param remapper The {@link MicromixinRemapper} of the namespace.
+     * @throws IllegalArgumentException If the remapper does not use the shared member lister.
+     */
+    public void addNamespace(@NotNull MicromixinRemapper remapper) {
+        Objects.requireNonNull(remapper, "Supplied argument 'remapper' may not be null.");
+        if (remapper.getBaseLister() != this.lister) {
+            throw new IllegalArgumentException("The supplied remapper does not use the shared member lister of this MultiNamespaceRemapper (see #getMemberLister())");
+        }
+        remapper.setSharedInference(this.sharedInference);
+        this.namespaces.add(remapper);
+    }
+
+    /**
+     * Obtain the {@link CachingMemberLister} that is shared between all namespaces.
+     *
+     * @return The shared {@link MemberLister}.
+     */
+    @NotNull
+    public CachingMemberLister getMemberLister() {
+        return this.lister;
+    }
+
+    /**
+     * Obtain the {@link MicromixinRemapper remappers} of all namespaces, in the order the namespaces were added.
+     *
+     * @return An unmodifiable view of the remappers.
+     */
+    @NotNull
+    public List<@NotNull MicromixinRemapper> getNamespaces() {
+        return Collections.unmodifiableList(this.namespaces);
+    }
+
+    /**
+     * Remap a mixin class into all namespaces. The supplied {@link ClassNode} is reused as the copy of the last
+     * namespace. Should remapping fail, no mapping requests are emitted, but the supplied {@link ClassNode} may
+     * have been modified.
+     *
+     * @param node The {@link ClassNode} to remap, in the source namespace.
+     * @return The remapped copies of the class, in the order the namespaces were added.
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link MicromixinRemapper#logUnimplementedFeature(String)}.
+     */
+    @NotNull
+    public List<@NotNull ClassNode> remapClass(@NotNull ClassNode node) throws IllegalMixinException, MissingFeatureException {
+        int namespaceCount = this.namespaces.size();
+        List<@NotNull ClassNode> copies = new ArrayList<>(namespaceCount);
+        for (int i = 1; i < namespaceCount; i++) {
+            ClassNode copy = new ClassNode();
+            node.accept(copy);
+            copies.add(copy);
+        }
+        if (namespaceCount != 0) {
+            copies.add(node);
+        }
+
+        List<@NotNull BufferedMappingSink> buffers = new ArrayList<>(namespaceCount);
+        for (int i = 0; i < namespaceCount; i++) {
+            BufferedMappingSink buffer = new BufferedMappingSink();
+            this.namespaces.get(i).remapClass(copies.get(i), buffer);
+            buffers.add(buffer);
+        }
+
+        for (int i = 0; i < namespaceCount; i++) {
+            buffers.get(i).flush(this.namespaces.get(i).getSink());
+        }
+        return copies;
+    }
+}
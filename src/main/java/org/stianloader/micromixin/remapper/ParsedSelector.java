@@ -0,0 +1,231 @@
+package org.stianloader.micromixin.remapper;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A string target selector (as used by for example <code>&#64;Inject.method</code> or <code>&#64;At.target</code>)
+ * split into it's owner, name and descriptor components. Any of the components may be absent.
+ *
+ * <p>The selector is parsed in a single pass and the components are stored as offsets into the selector
+ * string. The components are only materialized as separate strings once they are requested. Whitespace within
+ * the selector is ignored, but the selector string is only copied if it actually contains whitespace.
+ *
+ * <p>Instances are mutable and may be reused for parsing multiple selectors through {@link #parse(String)}
+ * in order to avoid allocations. As such, instances of this class are not thread-safe.
+ */
+public final class ParsedSelector {
+
+    private int descStart = -1;
+    private boolean field;
+    private int nameEnd = -1;
+    private int nameStart = -1;
+    private int ownerEnd = -1;
+    @NotNull
+    private String selector = "";
+
+    /**
+     * Obtain the descriptor of the selected member.
+     *
+     * @return The descriptor, or null if the selector does not define a descriptor.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public String getDesc() {
+        return this.descStart < 0 ? null : this.selector.substring(this.descStart);
+    }
+
+    /**
+     * Obtain the offset of the descriptor within {@link #getSelector()}. The descriptor extends up to the end
+     * of the selector.
+     *
+     * @return The start offset of the descriptor, or -1 if the selector does not define a descriptor.
+     */
+    @Contract(pure = true)
+    public int getDescStart() {
+        return this.descStart;
+    }
+
+    /**
+     * Obtain the name of the selected member.
+     *
+     * @return The name, or null if the selector does not define a name.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public String getName() {
+        return this.nameStart < 0 ? null : this.selector.substring(this.nameStart, this.nameEnd);
+    }
+
+    /**
+     * Obtain the (exclusive) end offset of the name within {@link #getSelector()}.
+     *
+     * @return The end offset of the name, or -1 if the selector does not define a name.
+     */
+    @Contract(pure = true)
+    public int getNameEnd() {
+        return this.nameEnd;
+    }
+
+    /**
+     * Obtain the (inclusive) start offset of the name within {@link #getSelector()}.
+     *
+     * @return The start offset of the name, or -1 if the selector does not define a name.
+     */
+    @Contract(pure = true)
+    public int getNameStart() {
+        return this.nameStart;
+    }
+
+    /**
+     * Obtain the internal name of the owner of the selected member.
+     *
+     * @return The internal name of the owner, or null if the selector does not define an owner.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public String getOwner() {
+        return this.ownerEnd < 0 ? null : this.selector.substring(1, this.ownerEnd);
+    }
+
+    /**
+     * Obtain the (exclusive) end offset of the internal name of the owner within {@link #getSelector()}.
+     * The internal name always starts at offset 1, after the leading 'L'.
+     *
+     * @return The end offset of the owner, or -1 if the selector does not define an owner.
+     */
+    @Contract(pure = true)
+    public int getOwnerEnd() {
+        return this.ownerEnd;
+    }
+
+    /**
+     * Obtain the parsed selector with all whitespace removed. If the originally parsed selector did not contain
+     * any whitespace, the same string instance is returned. All offsets returned by this class are relative to
+     * this string.
+     *
+     * @return The whitespace-free selector.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public String getSelector() {
+        return this.selector;
+    }
+
+    /**
+     * Check whether the selector defines all of it's components, that is the owner, the name and the descriptor.
+     *
+     * @return True if the selector is fully qualified, false otherwise.
+     */
+    @Contract(pure = true)
+    public boolean isFullyQualified() {
+        return this.ownerEnd >= 0 && this.nameStart >= 0 && this.descStart >= 0;
+    }
+
+    /**
+     * Check whether the selector explicitly selects a field, which is the case if the name and descriptor
+     * are separated by a colon (':').
+     *
+     * @return True if the selector selects a field.
+     */
+    @Contract(pure = true)
+    public boolean isField() {
+        return this.field;
+    }
+
+    /**
+     * Parse a string target selector, overwriting any previously parsed state of this instance.
+     *
+     * @param selector The selector to parse.
+     * @return This instance, for chaining.
+     * @throws IllegalArgumentException If the selector is malformed. In that case the state of this
+     * instance is undefined.
+     */
+    @NotNull
+    @Contract(mutates = "this", value = "_ -> this")
+    public ParsedSelector parse(@NotNull String selector) throws IllegalArgumentException {
+        int colonIndex = -1;
+        int semicolonIndex = -1;
+        int parenthesisIndex = -1;
+        int length = selector.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = selector.charAt(i);
+            if (c == ':') {
+                if (colonIndex < 0) {
+                    colonIndex = i;
+                }
+            } else if (c == ';') {
+                if (semicolonIndex < 0) {
+                    semicolonIndex = i;
+                }
+            } else if (c == '(') {
+                if (parenthesisIndex < 0) {
+                    parenthesisIndex = i;
+                }
+            } else if (Character.isWhitespace(c)) {
+                return this.parse(ParsedSelector.purgeWhitespace(selector, i));
+            }
+        }
+
+        int descStart = parenthesisIndex;
+        if (colonIndex >= 0) {
+            if (parenthesisIndex >= 0) {
+                throw new IllegalArgumentException("The usage of the colon (':') indicates a field string, but the target selector contains a '(', which is an illegal character within field selectors.");
+            }
+            descStart = colonIndex + 1;
+        }
+
+        int startName;
+        if (semicolonIndex != -1 && (descStart == -1 || semicolonIndex < descStart)) {
+            this.ownerEnd = semicolonIndex;
+            startName = semicolonIndex + 1;
+        } else {
+            this.ownerEnd = -1;
+            startName = 0;
+        }
+
+        int endName;
+        if (descStart == -1) {
+            endName = length;
+        } else {
+            endName = descStart;
+            if (colonIndex >= 0) {
+                endName--;
+            }
+        }
+
+        if (endName > startName) {
+            this.nameStart = startName;
+            this.nameEnd = endName;
+        } else {
+            this.nameStart = -1;
+            this.nameEnd = -1;
+        }
+
+        this.descStart = descStart;
+        this.field = colonIndex >= 0;
+        this.selector = selector;
+        return this;
+    }
+
+    @NotNull
+    private static String purgeWhitespace(@NotNull String selector, int firstWhitespace) {
+        StringBuilder purged = new StringBuilder(selector.length() - 1);
+        purged.append(selector, 0, firstWhitespace);
+        for (int i = firstWhitespace + 1; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                purged.append(c);
+            }
+        }
+        return purged.toString();
+    }
+
+    @Override
+    @NotNull
+    public String toString() {
+        return "ParsedSelector[owner=" + this.getOwner() + ", name=" + this.getName() + ", desc=" + this.getDesc() + "]";
+    }
+}
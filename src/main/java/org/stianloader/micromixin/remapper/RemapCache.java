@@ -0,0 +1,264 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.ApiStatus.OverrideOnly;
+import org.objectweb.asm.tree.ClassNode;
+import org.stianloader.remapper.MappingLookup;
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * A persistent on-disk cache for the outcome of {@link MicromixinRemapper#remapClass(ClassNode)}.
+ *
+ * <p>Entries are keyed by the SHA-256 hash of the class file of the mixin and of a user-supplied fingerprint.
+ * The fingerprint must change whenever the inputs of the {@link MicromixinRemapper} change, that is the
+ * {@link MappingLookup} and the {@link MemberLister} - a hash of the mapping files and of the target jar
+ * is usually a good choice. An entry stores the annotations of the class after remapping as well as the mapping
+ * requests that were emitted to the {@link MappingSink}. On a cache hit the annotations are applied onto the
+ * {@link ClassNode} and the mapping requests are replayed without resolving anything. Selector resolutions are
+ * cached as well and replayed into the {@link SelectorResolutionTable} of the remapper, if any.
+ *
+ * <p>Entries are deflate-compressed and checksummed, the checksum covering the header of the entry as well.
+ * Entries are written to a temporary file first, which is then atomically moved in place, so that the cache
+ * directory can be shared between concurrent processes on the same machine. Corrupt or unreadable entries are treated as cache misses and overwritten.
+ *
+ * <p>Failing to read or write an entry never causes remapping to fail, but is reported through
+ * {@link #logCacheFailure(String, IOException)}. Instances of this class are thread-safe if the underlying
+ * {@link MicromixinRemapper} may be used concurrently.
+ */
+public class RemapCache {
+
+    private static final int FORMAT_VERSION = 4;
+    private static final int HEADER_LENGTH = 16;
+    private static final int MAGIC = 0x4D4D5243; // "MMRC"
+    /**
+     * The upper bound of the ratio between the uncompressed and the compressed length of deflated data.
+     */
+    static final int MAXIMUM_COMPRESSION_RATIO = 1032;
+
+    @NotNull
+    private final Path directory;
+    private final byte @NotNull[] fingerprint;
+    @NotNull
+    private final LongAdder hits = new LongAdder();
+    @NotNull
+    private final LongAdder misses = new LongAdder();
+    @NotNull
+    private final MicromixinRemapper remapper;
+
+    /**
+     * Constructor. The cache directory is created should it not yet exist.
+     *
+     * @param remapper The {@link MicromixinRemapper} to remap classes with on cache misses.
+     * Cached mapping requests are emitted to the {@link MappingSink} of this remapper.
+     * @param directory The directory in which the cache entries are stored.
+     * @param fingerprint A fingerprint of the {@link MappingLookup} and {@link MemberLister} used by the remapper.
+     * @throws IOException If the cache directory could not be created.
+     */
+    public RemapCache(@NotNull MicromixinRemapper remapper, @NotNull Path directory, @NotNull String fingerprint) throws IOException {
+        this.remapper = Objects.requireNonNull(remapper, "Supplied argument 'remapper' may not be null.");
+        this.directory = Files.createDirectories(directory);
+        this.fingerprint = fingerprint.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Obtain the amount of classes whose outcome was read from the cache.
+     *
+     * @return The amount of cache hits.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Obtain the amount of classes that had to be remapped using the {@link MicromixinRemapper}.
+     *
+     * @return The amount of cache misses.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    @NotNull
+    private Path getEntryPath(byte @NotNull[] classFile) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+        digest.update(ByteBuffer.allocate(8).putInt(RemapCache.FORMAT_VERSION).putInt(this.fingerprint.length).array());
+        digest.update(this.fingerprint);
+        digest.update(classFile);
+
+        StringBuilder name = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            name.append(Character.forDigit((b >> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+        }
+        return this.directory.resolve(name.substring(0, 2)).resolve(name.substring(2) + ".mmrc");
+    }
+
+    /**
+     * Method that is called whenever a cache entry could not be read or written.
+     * The default implementation does nothing, as failures of the cache do not affect the outcome of remapping.
+     *
+     * @param message A description of the failure.
+     * @param cause The exception that caused the failure.
+     */
+    @OverrideOnly
+    protected void logCacheFailure(@NotNull String message, @NotNull IOException cause) {
+        // NOP
+    }
+
+    @Nullable
+    private RemapRecord readEntry(@NotNull Path entry) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(entry);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        if (bytes.length < RemapCache.HEADER_LENGTH
+                || header.getInt() != RemapCache.MAGIC
+                || header.getInt() != RemapCache.FORMAT_VERSION) {
+            throw new IOException("Cache entry " + entry + " has an invalid header");
+        }
+        int uncompressedLength = header.getInt();
+        int checksum = header.getInt();
+        int compressedLength = bytes.length - RemapCache.HEADER_LENGTH;
+        if (uncompressedLength < 0 || uncompressedLength > (long) compressedLength * RemapCache.MAXIMUM_COMPRESSION_RATIO) {
+            throw new IOException("Cache entry " + entry + " has an invalid header");
+        }
+
+        // The checksum covers the header (excluding the checksum itself) and the compressed payload
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, RemapCache.HEADER_LENGTH - 4);
+        crc.update(bytes, RemapCache.HEADER_LENGTH, compressedLength);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Cache entry " + entry + " is corrupt (checksum mismatch)");
+        }
+
+        byte[] payload = new byte[uncompressedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, RemapCache.HEADER_LENGTH, bytes.length - RemapCache.HEADER_LENGTH);
+            if (inflater.inflate(payload) != uncompressedLength || !inflater.finished()) {
+                throw new IOException("Cache entry " + entry + " is corrupt (length mismatch)");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Cache entry " + entry + " is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+
+        return RemapRecord.read(new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    /**
+     * Remap a mixin class through the cache. If the cache contains an entry for the class, the remapped
+     * annotations are applied onto the {@link ClassNode} and the cached mapping requests are emitted. Otherwise the
+     * class is remapped through {@link MicromixinRemapper#remapClass(ClassNode)} and the outcome is stored in the cache.
+     *
+     * <p>The {@link ClassNode} must have been read from the supplied class file and must not have been modified
+     * since. The same requirements as for {@link MicromixinRemapper#remapClass(ClassNode)} apply.
+     *
+     * @param node The {@link ClassNode} to remap.
+     * @param classFile The bytes of the class file the {@link ClassNode} was read from.
+     * @return True if the outcome was read from the cache, false otherwise.
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link MicromixinRemapper#logUnimplementedFeature(String)}.
+     */
+    public boolean remapClass(@NotNull ClassNode node, byte @NotNull[] classFile) throws IllegalMixinException, MissingFeatureException {
+        Path entry = this.getEntryPath(classFile);
+        try {
+            RemapRecord record = this.readEntry(entry);
+            if (record != null && record.apply(node, this.remapper.getSink())) {
+                record.getResolutions().flush(this.remapper);
+                this.hits.increment();
+                return true;
+            }
+        } catch (IOException e) {
+            this.logCacheFailure("Unable to read cache entry " + entry + " of class " + node.name, e);
+        }
+
+        this.misses.increment();
+        byte[] inputDigest = RemapRecord.digestInput(node);
+        BufferedMappingSink buffer = new BufferedMappingSink();
+        ResolutionBuffer resolutions = this.remapper.remapClassBuffered(node, buffer);
+        buffer.flush(this.remapper.getSink());
+        resolutions.flush(this.remapper);
+
+        try {
+            this.writeEntry(entry, RemapRecord.capture(node, inputDigest, buffer, resolutions));
+        } catch (IOException e) {
+            this.logCacheFailure("Unable to write cache entry " + entry + " of class " + node.name, e);
+        }
+        return false;
+    }
+
+    private void writeEntry(@NotNull Path entry, @NotNull RemapRecord record) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        record.write(new DataOutputStream(payload));
+        int uncompressedLength = payload.size();
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(compressed, deflater)) {
+            payload.writeTo(deflaterOut);
+        } finally {
+            deflater.end();
+        }
+        byte[] compressedBytes = compressed.toByteArray();
+
+        byte[] header = ByteBuffer.allocate(RemapCache.HEADER_LENGTH)
+                .putInt(RemapCache.MAGIC)
+                .putInt(RemapCache.FORMAT_VERSION)
+                .putInt(uncompressedLength)
+                .array();
+        CRC32 crc = new CRC32();
+        crc.update(header, 0, RemapCache.HEADER_LENGTH - 4);
+        crc.update(compressedBytes);
+        ByteBuffer.wrap(header).putInt(RemapCache.HEADER_LENGTH - 4, (int) crc.getValue());
+
+        Path parent = Files.createDirectories(entry.getParent());
+        Path temp = Files.createTempFile(parent, entry.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(header);
+                out.write(compressedBytes);
+            }
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * A long-lived process serving remapping requests of other processes, so that a {@link MicromixinRemapper}
+ * along with it's {@link MemberLister} and {@link org.stianloader.remapper.MappingLookup} (and their caches)
+ * only needs to be built once instead of once per build. Clients connect through a {@link RemapDaemonClient}.
+ *
+ * <p>The daemon is reachable through an endpoint on the file system. On Java 16 and newer, the endpoint is a
+ * unix domain socket that is only accessible by the user running the daemon. On older versions of Java, the daemon
+ * listens on a socket bound to the loopback address and the endpoint is a file only readable by the user running
+ * the daemon, which contains the port of the socket and a secret that clients must present when connecting.
+ *
+ * <p>Each connection may issue any amount of requests, each consisting of the class file of a mixin. The daemon
+ * answers with the remapped class file and the mapping requests that {@link MicromixinRemapper#remapClass(ClassNode)}
+ * emitted, which are not emitted to the {@link MappingSink} of the remapper. Class files larger than the maximum
+ * request size are rejected. Connections are served concurrently by a bounded amount of threads, so the requirements of
+ * {@link MicromixinRemapper#remapClasses(java.util.Collection, java.util.concurrent.Executor)} apply. Connections
+ * exceeding that amount wait until a thread becomes available.
+ *
+ * <p>The daemon shuts down by itself once no connection was open and no request was served for the duration
+ * of the idle timeout. Connections that do not issue a request within the idle timeout are closed.
+ */
+public class RemapDaemon implements Closeable {
+
+    private static final int ACCEPT_POLL_INTERVAL = 1000;
+    private static final int CONNECTION_BACKLOG = 50;
+
+    /**
+     * The default amount of connections that are served at once.
+     */
+    public static final int DEFAULT_MAXIMUM_CONNECTIONS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The default maximum size of a class file sent to or received from the daemon, in bytes.
+     */
+    public static final int DEFAULT_MAXIMUM_REQUEST_SIZE = 16 * 1024 * 1024;
+
+    static final int END_OF_REQUESTS = -1;
+    static final int SECRET_LENGTH = 32;
+    static final byte STATUS_ILLEGAL_MIXIN = 1;
+    static final byte STATUS_INTERNAL_ERROR = 3;
+    static final byte STATUS_MISSING_FEATURE = 2;
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_REQUEST_TOO_LARGE = 4;
+    static final String TCP_ENDPOINT_PREFIX = "tcp";
+
+    private static final class Connection {
+        private volatile boolean busy;
+        @NotNull
+        private final SocketChannel channel;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        private Connection(@NotNull SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    @NotNull
+    private static ServerSocketChannel bindUnixDomainSocket(@NotNull Path endpoint) throws IOException {
+        // The socket is bound within a directory only accessible by the owner and moved in place once access to it
+        // is restricted, as unix domain sockets are created with the permissions of the umask of the process.
+        Path parent = endpoint.toAbsolutePath().getParent();
+        boolean posix = Files.getFileStore(parent).supportsFileAttributeView(PosixFileAttributeView.class);
+        Path directory = posix
+                ? Files.createTempDirectory(parent, "micromixin-remapper", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")))
+                : Files.createTempDirectory(parent, "micromixin-remapper");
+        Path socket = directory.resolve("socket");
+        try {
+            ServerSocketChannel server = UnixDomainSockets.bind(socket);
+            try {
+                if (posix) {
+                    Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+                }
+                Files.move(socket, endpoint);
+            } catch (IOException | RuntimeException e) {
+                server.close();
+                throw e;
+            }
+            return server;
+        } finally {
+            Files.deleteIfExists(socket);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void writeMessage(@NotNull DataOutputStream out, byte status, @NotNull String message) throws IOException {
+        out.writeByte(status);
+        // DataOutput#writeUTF is limited to 65535 bytes, which 16384 chars are guaranteed to not exceed
+        out.writeUTF(message.length() > 16384 ? message.substring(0, 16384) : message);
+    }
+
+    private static void writeOwnerOnlyFile(@NotNull Path file, byte @NotNull[] content) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp;
+        if (Files.getFileStore(parent).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            AclFileAttributeView acl = Files.getFileAttributeView(temp, AclFileAttributeView.class);
+            if (acl == null) {
+                Files.delete(temp);
+                throw new IOException("Unable to restrict access to " + file + ": The file system supports neither POSIX permissions nor ACLs");
+            }
+            acl.setAcl(Collections.singletonList(AclEntry.newBuilder()
+                    .setType(AclEntryType.ALLOW)
+                    .setPrincipal(acl.getOwner())
+                    .setPermissions(EnumSet.of(AclEntryPermission.READ_DATA, AclEntryPermission.WRITE_DATA, AclEntryPermission.APPEND_DATA,
+                            AclEntryPermission.READ_ATTRIBUTES, AclEntryPermission.WRITE_ATTRIBUTES, AclEntryPermission.READ_NAMED_ATTRS,
+                            AclEntryPermission.WRITE_NAMED_ATTRS, AclEntryPermission.READ_ACL, AclEntryPermission.WRITE_ACL,
+                            AclEntryPermission.DELETE, AclEntryPermission.SYNCHRONIZE))
+                    .build()));
+        }
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(content);
+            }
+            Files.move(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @NotNull
+    private final AtomicBoolean closed = new AtomicBoolean();
+    @NotNull
+    private final Set<@NotNull Connection> connections = ConcurrentHashMap.newKeySet();
+    @NotNull
+    private final Path endpoint;
+    @NotNull
+    private final ThreadPoolExecutor executor;
+    private final long idleTimeout;
+    private volatile long lastActivity;
+    private final int maximumRequestSize;
+    @NotNull
+    private final MicromixinRemapper remapper;
+    private final byte @Nullable[] secret;
+    @NotNull
+    private final Selector selector;
+    @NotNull
+    private final ServerSocketChannel server;
+    @NotNull
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    /**
+     * Constructor. Serves {@link #DEFAULT_MAXIMUM_CONNECTIONS} connections at once and rejects class files
+     * larger than {@link #DEFAULT_MAXIMUM_REQUEST_SIZE}.
+     *
+     * @param remapper The {@link MicromixinRemapper} to remap classes with.
+     * @param endpoint The path of the endpoint to create, which must not exist yet.
+     * @param idleTimeout The duration after which the daemon shuts down if idle. Must be positive.
+     * @param unit The unit of the idle timeout.
+     * @throws IOException If the socket could not be bound or the endpoint could not be created.
+     * @see #RemapDaemon(MicromixinRemapper, Path, long, TimeUnit, int, int)
+     */
+    public RemapDaemon(@NotNull MicromixinRemapper remapper, @NotNull Path endpoint, long idleTimeout, @NotNull TimeUnit unit) throws IOException {
+        this(remapper, endpoint, idleTimeout, unit, RemapDaemon.DEFAULT_MAXIMUM_CONNECTIONS, RemapDaemon.DEFAULT_MAXIMUM_REQUEST_SIZE);
+    }
+
+    /**
+     * Constructor. Binds the socket of the daemon and creates the endpoint, but does not accept connections until
+     * {@link #start()} is called. The endpoint is removed once the daemon shuts down.
+     *
+     * @param remapper The {@link MicromixinRemapper} to remap classes with.
+     * @param endpoint The path of the endpoint to create, which must not exist yet.
+     * @param idleTimeout The duration after which the daemon shuts down if idle. Must be positive.
+     * @param unit The unit of the idle timeout.
+     * @param maximumConnections The maximum amount of connections that are served at once. Must be positive.
+     * @param maximumRequestSize The maximum size of a class file that is accepted, in bytes. Must be positive.
+     * @throws IOException If the socket could not be bound or the endpoint could not be created.
+     */
+    public RemapDaemon(@NotNull MicromixinRemapper remapper, @NotNull Path endpoint, long idleTimeout, @NotNull TimeUnit unit,
+            int maximumConnections, int maximumRequestSize) throws IOException {
+        if (idleTimeout <= 0) {
+            throw new IllegalArgumentException("The idle timeout must be positive, but it is " + idleTimeout);
+        } else if (maximumConnections <= 0) {
+            throw new IllegalArgumentException("The maximum amount of connections must be positive, but it is " + maximumConnections);
+        } else if (maximumRequestSize <= 0) {
+            throw new IllegalArgumentException("The maximum request size must be positive, but it is " + maximumRequestSize);
+        }
+        this.remapper = Objects.requireNonNull(remapper, "Supplied argument 'remapper' may not be null.");
+        this.endpoint = Objects.requireNonNull(endpoint, "Supplied argument 'endpoint' may not be null.");
+        this.idleTimeout = Objects.requireNonNull(unit, "Supplied argument 'unit' may not be null.").toMillis(idleTimeout);
+        this.maximumRequestSize = maximumRequestSize;
+
+        if (UnixDomainSockets.isSupported()) {
+            this.server = RemapDaemon.bindUnixDomainSocket(endpoint);
+            this.secret = null;
+        } else {
+            this.server = ServerSocketChannel.open();
+            byte[] secret = new byte[RemapDaemon.SECRET_LENGTH];
+            new SecureRandom().nextBytes(secret);
+            this.secret = secret;
+            try {
+                this.server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), RemapDaemon.CONNECTION_BACKLOG);
+                StringBuilder content = new StringBuilder(RemapDaemon.TCP_ENDPOINT_PREFIX).append(' ');
+                content.append(((InetSocketAddress) this.server.getLocalAddress()).getPort()).append(' ');
+                for (byte b : secret) {
+                    content.append(Character.forDigit((b >> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+                }
+                RemapDaemon.writeOwnerOnlyFile(endpoint, content.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException | RuntimeException e) {
+                this.server.close();
+                throw e;
+            }
+        }
+
+        try {
+            this.server.configureBlocking(false);
+            this.selector = Selector.open();
+            this.server.register(this.selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException | RuntimeException e) {
+            this.server.close();
+            Files.deleteIfExists(endpoint);
+            throw e;
+        }
+
+        this.executor = new ThreadPoolExecutor(maximumConnections, maximumConnections, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(RemapDaemon.CONNECTION_BACKLOG), (task) -> {
+            Thread thread = new Thread(task, "micromixin-remapper-daemon-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void acceptConnections() {
+        try {
+            while (this.server.isOpen()) {
+                this.selector.select(RemapDaemon.ACCEPT_POLL_INTERVAL);
+                this.selector.selectedKeys().clear();
+                SocketChannel channel;
+                while ((channel = this.server.accept()) != null) {
+                    channel.configureBlocking(true);
+                    Connection connection = new Connection(channel);
+                    this.connections.add(connection);
+                    this.lastActivity = System.currentTimeMillis();
+                    try {
+                        this.executor.execute(() -> this.serve(connection));
+                    } catch (RejectedExecutionException e) {
+                        // Too many connections are waiting to be served already
+                        this.connections.remove(connection);
+                        channel.close();
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                for (Connection connection : this.connections) {
+                    if (!connection.busy && now - connection.lastActivity >= this.idleTimeout) {
+                        connection.channel.close();
+                    }
+                }
+                if (this.connections.isEmpty() && now - this.lastActivity >= this.idleTimeout) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // The server socket was closed
+        } finally {
+            this.close();
+            try {
+                this.selector.close();
+            } catch (IOException ignored) {
+            }
+            this.terminated.countDown();
+        }
+    }
+
+    /**
+     * Wait until the daemon shut down, either because it was idle or because it was {@link #close() closed}.
+     *
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     */
+    public void awaitTermination() throws InterruptedException {
+        this.terminated.await();
+    }
+
+    /**
+     * Shut down the daemon, closing all open connections and removing the endpoint. Requests that are being served
+     * are aborted.
+     */
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.server.close();
+        } catch (IOException ignored) {
+        }
+        this.selector.wakeup();
+        for (Connection connection : this.connections) {
+            try {
+                connection.channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        this.executor.shutdown();
+        try {
+            Files.deleteIfExists(this.endpoint);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Obtain the endpoint of the daemon, which is to be passed to {@link RemapDaemonClient#RemapDaemonClient(Path)}.
+     *
+     * @return The path of the endpoint.
+     */
+    @NotNull
+    public Path getEndpoint() {
+        return this.endpoint;
+    }
+
+    private void handleRequest(byte @NotNull[] classFile, @NotNull DataOutputStream out) throws IOException {
+        BufferedMappingSink requests = new BufferedMappingSink();
+        byte[] remapped;
+        try {
+            ClassNode node = new ClassNode();
+            new ClassReader(classFile).accept(node, 0);
+            this.remapper.remapClass(node, requests);
+            ClassWriter writer = new ClassWriter(0);
+            node.accept(writer);
+            remapped = writer.toByteArray();
+        } catch (IllegalMixinException e) {
+            RemapDaemon.writeMessage(out, RemapDaemon.STATUS_ILLEGAL_MIXIN, String.valueOf(e.getMessage()));
+            return;
+        } catch (MissingFeatureException e) {
+            RemapDaemon.writeMessage(out, RemapDaemon.STATUS_MISSING_FEATURE, String.valueOf(e.getMessage()));
+            return;
+        } catch (RuntimeException e) {
+            RemapDaemon.writeMessage(out, RemapDaemon.STATUS_INTERNAL_ERROR, e.toString());
+            return;
+        }
+
+        out.writeByte(RemapDaemon.STATUS_OK);
+        out.writeInt(remapped.length);
+        out.write(remapped);
+        requests.write(out);
+    }
+
+    private void serve(@NotNull Connection connection) {
+        try (SocketChannel channel = connection.channel;
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            byte[] secret = this.secret;
+            if (secret != null) {
+                byte[] presented = new byte[secret.length];
+                in.readFully(presented);
+                if (!MessageDigest.isEqual(secret, presented)) {
+                    return;
+                }
+            }
+            out.writeInt(this.maximumRequestSize);
+            out.flush();
+
+            for (int length; (length = in.readInt()) >= 0;) {
+                if (length > this.maximumRequestSize) {
+                    RemapDaemon.writeMessage(out, RemapDaemon.STATUS_REQUEST_TOO_LARGE, "The class file has a size of " + length + " bytes, which exceeds the maximum of " + this.maximumRequestSize + " bytes");
+                    out.flush();
+                    break;
+                }
+                byte[] classFile = new byte[length];
+                in.readFully(classFile);
+                connection.busy = true;
+                this.lastActivity = System.currentTimeMillis();
+                this.handleRequest(classFile, out);
+                out.flush();
+                connection.lastActivity = System.currentTimeMillis();
+                connection.busy = false;
+            }
+        } catch (IOException e) {
+            // The connection was closed by the client, timed out or the daemon is shutting down
+        } finally {
+            this.connections.remove(connection);
+            this.lastActivity = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Start accepting connections on a background thread. The idle timeout starts running from this point on.
+     * This method may only be called once.
+     */
+    public void start() {
+        this.lastActivity = System.currentTimeMillis();
+        Thread acceptor = new Thread(this::acceptConnections, "micromixin-remapper-daemon");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+}
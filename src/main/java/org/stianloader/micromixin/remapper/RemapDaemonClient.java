@@ -0,0 +1,166 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * A connection to a {@link RemapDaemon} running on the local machine. Requests issued through a single client
+ * are served one after another, but several clients may be connected to the same daemon at once.
+ *
+ * <p>Unix domain socket endpoints can only be connected to on Java 16 and newer. Endpoints of daemons running on
+ * older versions of Java can be connected to from any version of Java, provided the endpoint file is readable.
+ *
+ * <p>Instances of this class are not thread-safe.
+ */
+public class RemapDaemonClient implements Closeable {
+
+    @NotNull
+    private final SocketChannel channel;
+    @NotNull
+    private final DataInputStream in;
+    private final int maximumRequestSize;
+    private final int maximumResponseSize;
+    @NotNull
+    private final DataOutputStream out;
+
+    /**
+     * Constructor. Connects to the daemon behind the given endpoint, accepting remapped class files of at most
+     * {@link RemapDaemon#DEFAULT_MAXIMUM_REQUEST_SIZE} bytes.
+     *
+     * @param endpoint The endpoint of the daemon, as obtained through {@link RemapDaemon#getEndpoint()}.
+     * @throws IOException If the daemon could not be connected to.
+     */
+    public RemapDaemonClient(@NotNull Path endpoint) throws IOException {
+        this(endpoint, RemapDaemon.DEFAULT_MAXIMUM_REQUEST_SIZE);
+    }
+
+    /**
+     * Constructor. Connects to the daemon behind the given endpoint.
+     *
+     * @param endpoint The endpoint of the daemon, as obtained through {@link RemapDaemon#getEndpoint()}.
+     * @param maximumResponseSize The maximum size of a remapped class file that is accepted, in bytes. Must be positive.
+     * @throws IOException If the daemon could not be connected to.
+     */
+    public RemapDaemonClient(@NotNull Path endpoint, int maximumResponseSize) throws IOException {
+        Objects.requireNonNull(endpoint, "Supplied argument 'endpoint' may not be null.");
+        if (maximumResponseSize <= 0) {
+            throw new IllegalArgumentException("The maximum response size must be positive, but it is " + maximumResponseSize);
+        }
+        this.maximumResponseSize = maximumResponseSize;
+
+        byte[] secret = null;
+        if (Files.isRegularFile(endpoint)) {
+            // The daemon listens on the loopback address and requires the secret stored in the endpoint file
+            String[] parts = new String(Files.readAllBytes(endpoint), StandardCharsets.UTF_8).trim().split(" ");
+            if (parts.length != 3 || !parts[0].equals(RemapDaemon.TCP_ENDPOINT_PREFIX) || parts[2].length() != RemapDaemon.SECRET_LENGTH * 2) {
+                throw new IOException("Malformed daemon endpoint: " + endpoint);
+            }
+            int port;
+            secret = new byte[RemapDaemon.SECRET_LENGTH];
+            try {
+                port = Integer.parseInt(parts[1]);
+                for (int i = 0; i < secret.length; i++) {
+                    secret[i] = (byte) Integer.parseInt(parts[2].substring(i * 2, i * 2 + 2), 16);
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed daemon endpoint: " + endpoint, e);
+            }
+            this.channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } else {
+            this.channel = UnixDomainSockets.connect(endpoint);
+        }
+
+        try {
+            this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(this.channel)));
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(this.channel)));
+            if (secret != null) {
+                this.out.write(secret);
+                this.out.flush();
+            }
+            this.maximumRequestSize = this.in.readInt();
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Close the connection to the daemon. The daemon itself keeps running.
+     *
+     * @throws IOException If the connection could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.out.writeInt(RemapDaemon.END_OF_REQUESTS);
+            this.out.flush();
+        } catch (IOException ignored) {
+            // The daemon already closed the connection
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Remap a mixin class through the {@link MicromixinRemapper} of the daemon, behaving like
+     * {@link MicromixinRemapper#remapClass(org.objectweb.asm.tree.ClassNode)}. The mapping requests emitted
+     * by the remapper are emitted to the supplied {@link MappingSink} once the class was remapped successfully.
+     *
+     * @param classFile The class file of the mixin class.
+     * @param sink The {@link MappingSink} to which member renames are emitted.
+     * @return The class file of the remapped mixin class.
+     * @throws IOException If the daemon could not be communicated with, if it failed unexpectedly or if the class file
+     * exceeds the maximum size accepted by the daemon or the remapped class file exceeds the maximum response size.
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link MicromixinRemapper#logUnimplementedFeature(String)}.
+     */
+    public byte @NotNull[] remapClass(byte @NotNull[] classFile, @NotNull MappingSink sink) throws IOException, IllegalMixinException, MissingFeatureException {
+        Objects.requireNonNull(classFile, "Supplied argument 'classFile' may not be null.");
+        Objects.requireNonNull(sink, "Supplied argument 'sink' may not be null.");
+        if (classFile.length > this.maximumRequestSize) {
+            throw new IOException("The class file has a size of " + classFile.length + " bytes, which exceeds the maximum of " + this.maximumRequestSize + " bytes accepted by the daemon");
+        }
+        this.out.writeInt(classFile.length);
+        this.out.write(classFile);
+        this.out.flush();
+
+        byte status = this.in.readByte();
+        switch (status) {
+        case RemapDaemon.STATUS_OK:
+            int length = this.in.readInt();
+            if (length < 0 || length > this.maximumResponseSize) {
+                this.channel.close();
+                throw new IOException("The remapped class file has a size of " + length + " bytes, which exceeds the maximum of " + this.maximumResponseSize + " bytes");
+            }
+            byte[] remapped = new byte[length];
+            this.in.readFully(remapped);
+            BufferedMappingSink.read(this.in).flush(sink);
+            return remapped;
+        case RemapDaemon.STATUS_ILLEGAL_MIXIN:
+            throw new IllegalMixinException(this.in.readUTF());
+        case RemapDaemon.STATUS_MISSING_FEATURE:
+            throw new MissingFeatureException(this.in.readUTF());
+        case RemapDaemon.STATUS_INTERNAL_ERROR:
+            throw new IOException("The daemon failed to remap the class: " + this.in.readUTF());
+        case RemapDaemon.STATUS_REQUEST_TOO_LARGE:
+            throw new IOException("The daemon rejected the class: " + this.in.readUTF());
+        default:
+            throw new IOException("Unknown response status: " + status);
+        }
+    }
+}
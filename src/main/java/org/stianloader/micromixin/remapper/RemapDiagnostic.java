@@ -0,0 +1,136 @@
+package org.stianloader.micromixin.remapper;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A problem encountered while remapping a mixin class through {@link MicromixinRemapper#remapClassCollecting(org.objectweb.asm.tree.ClassNode)}
+ * or {@link MicromixinRemapper#remapClassesCollecting(java.util.Collection, java.util.concurrent.Executor)}.
+ *
+ * <p>Diagnostics are immutable.
+ */
+public final class RemapDiagnostic {
+
+    /**
+     * The kind of a {@link RemapDiagnostic}, which corresponds to the exception that would have been thrown
+     * had the problem been encountered outside of the collecting mode.
+     */
+    public enum Kind {
+        /**
+         * The problem would have caused an {@link IllegalMixinException} to be thrown.
+         */
+        ILLEGAL_MIXIN,
+        /**
+         * The problem would have caused {@link MicromixinRemapper#logUnimplementedFeature(String)} to throw an
+         * {@link MissingFeatureException}.
+         */
+        MISSING_FEATURE,
+        /**
+         * The remapper failed with an unexpected {@link RuntimeException}, for example a {@link ClassCastException}
+         * caused by an annotation value of the wrong type. The message of the diagnostic is the
+         * {@link Throwable#toString() string representation} of the exception.
+         */
+        UNEXPECTED_EXCEPTION;
+    }
+
+    @Nullable
+    private final String annotationDesc;
+    @NotNull
+    private final String className;
+    @NotNull
+    private final Kind kind;
+    @Nullable
+    private final String memberDesc;
+    @Nullable
+    private final String memberName;
+    @NotNull
+    private final String message;
+
+    RemapDiagnostic(@NotNull Kind kind, @NotNull String className, @Nullable String memberName, @Nullable String memberDesc, @Nullable String annotationDesc, @NotNull String message) {
+        this.kind = kind;
+        this.className = className;
+        this.memberName = memberName;
+        this.memberDesc = memberDesc;
+        this.annotationDesc = annotationDesc;
+        this.message = message;
+    }
+
+    /**
+     * Obtain the descriptor of the annotation that was being remapped when the problem was encountered.
+     *
+     * @return The descriptor of the annotation, or null if the problem is not tied to a specific annotation.
+     */
+    @Nullable
+    public String getAnnotationDesc() {
+        return this.annotationDesc;
+    }
+
+    /**
+     * Obtain the internal name of the mixin class in which the problem was encountered.
+     *
+     * @return The internal name of the mixin class.
+     */
+    @NotNull
+    public String getClassName() {
+        return this.className;
+    }
+
+    /**
+     * Obtain the kind of the problem.
+     *
+     * @return The {@link Kind} of the diagnostic.
+     */
+    @NotNull
+    public Kind getKind() {
+        return this.kind;
+    }
+
+    /**
+     * Obtain the descriptor of the mixin member in which the problem was encountered.
+     *
+     * @return The descriptor of the member, or null if the problem is not tied to a specific member.
+     */
+    @Nullable
+    public String getMemberDesc() {
+        return this.memberDesc;
+    }
+
+    /**
+     * Obtain the name of the mixin member in which the problem was encountered.
+     *
+     * @return The name of the member, or null if the problem is not tied to a specific member.
+     */
+    @Nullable
+    public String getMemberName() {
+        return this.memberName;
+    }
+
+    /**
+     * Obtain the description of the problem, which is the message the corresponding exception would have had.
+     *
+     * @return The description of the problem.
+     */
+    @NotNull
+    public String getMessage() {
+        return this.message;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(this.kind).append(" in ").append(this.className);
+        if (this.memberName != null) {
+            builder.append('.').append(this.memberName);
+            if (this.memberDesc != null) {
+                if (this.memberDesc.codePointAt(0) != '(') {
+                    builder.append(':');
+                }
+                builder.append(this.memberDesc);
+            }
+        }
+        if (this.annotationDesc != null) {
+            builder.append(" (").append(this.annotationDesc).append(')');
+        }
+        return builder.append(": ").append(this.message).toString();
+    }
+}
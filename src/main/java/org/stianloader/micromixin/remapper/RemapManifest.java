@@ -0,0 +1,244 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.tree.ClassNode;
+import org.stianloader.remapper.MappingLookup;
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * A manifest of everything {@link MicromixinRemapper#remapClass(ClassNode)} decided for a set of mixin classes:
+ * The mapping requests emitted to the {@link MappingSink}, the annotations after remapping, which
+ * include the rewritten target selectors, <code>&#64;At</code> and <code>&#64;Desc</code> annotations
+ * and the resolved <code>&#64;Mixin</code> targets, as well as the entries of the {@link SelectorResolutionTable}.
+ *
+ * <p>A manifest can be written to a compact, versioned and checksummed binary format and later be replayed onto
+ * the same input classes through {@link #replay(ClassNode, MappingSink)}. Replaying does not query any {@link MemberLister} or
+ * {@link MappingLookup} and thus allows to rebuild artifacts quickly and reproducibly. Classes are identified by
+ * their name. Alongside the outcome, a digest of the members and annotations of the class before remapping is recorded
+ * and a class is only replayed if that digest still matches.
+ *
+ * <p>Entries are written in the order they were recorded, so writing the same manifest twice yields identical
+ * bytes. Instances of this class are not thread-safe.
+ */
+public class RemapManifest {
+
+    private static final int FORMAT_VERSION = 4;
+    private static final int HEADER_LENGTH = 20;
+    private static final int MAGIC = 0x4D4D524D; // "MMRM"
+    private static final int MINIMUM_ENTRY_SIZE = 34;
+
+    /**
+     * Read a manifest previously written through {@link #write(OutputStream)}. The stream is not closed
+     * and is not read past the end of the manifest.
+     *
+     * @param in The stream to read the manifest from.
+     * @return The read manifest.
+     * @throws IOException If the stream could not be read, does not contain a manifest of a supported version
+     * or if the manifest is corrupt.
+     */
+    @NotNull
+    public static RemapManifest read(@NotNull InputStream in) throws IOException {
+        byte[] headerBytes = new byte[RemapManifest.HEADER_LENGTH];
+        new DataInputStream(in).readFully(headerBytes);
+        ByteBuffer header = ByteBuffer.wrap(headerBytes);
+        if (header.getInt() != RemapManifest.MAGIC) {
+            throw new IOException("Not a remap manifest (invalid magic)");
+        }
+        int version = header.getInt();
+        if (version != RemapManifest.FORMAT_VERSION) {
+            throw new IOException("Unsupported remap manifest version " + version + " (expected " + RemapManifest.FORMAT_VERSION + ")");
+        }
+        int uncompressedLength = header.getInt();
+        int compressedLength = header.getInt();
+        int checksum = header.getInt();
+        if (compressedLength < 0 || uncompressedLength < 0 || uncompressedLength > (long) compressedLength * RemapCache.MAXIMUM_COMPRESSION_RATIO) {
+            throw new IOException("Remap manifest has an invalid header");
+        }
+
+        // Read the payload in chunks, so that a corrupt length does not cause a huge allocation up front
+        ByteArrayOutputStream compressedOut = new ByteArrayOutputStream(Math.min(compressedLength, 8192));
+        byte[] buffer = new byte[8192];
+        for (int remaining = compressedLength; remaining > 0;) {
+            int read = in.read(buffer, 0, Math.min(remaining, buffer.length));
+            if (read < 0) {
+                throw new EOFException("Remap manifest payload is truncated");
+            }
+            compressedOut.write(buffer, 0, read);
+            remaining -= read;
+        }
+        byte[] compressed = compressedOut.toByteArray();
+
+        // The checksum covers the header (excluding the checksum itself) and the compressed payload
+        CRC32 crc = new CRC32();
+        crc.update(headerBytes, 0, RemapManifest.HEADER_LENGTH - 4);
+        crc.update(compressed);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Remap manifest is corrupt (checksum mismatch)");
+        }
+
+        byte[] payloadBytes = new byte[uncompressedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            if (inflater.inflate(payloadBytes) != uncompressedLength || !inflater.finished()) {
+                throw new IOException("Remap manifest is corrupt (length mismatch)");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Remap manifest is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+
+        RemapManifest manifest = new RemapManifest();
+        DataInputStream payload = new DataInputStream(new ByteArrayInputStream(payloadBytes));
+        int count = payload.readInt();
+        // Each entry consists of at least the class name and the input digest
+        if (count < 0 || (long) count * RemapManifest.MINIMUM_ENTRY_SIZE > payload.available()) {
+            throw new IOException("Remap manifest is corrupt (invalid entry count " + count + ")");
+        }
+        for (int i = count; i > 0; i--) {
+            String className = payload.readUTF();
+            manifest.records.put(className, RemapRecord.read(payload));
+        }
+        if (payload.available() != 0) {
+            throw new IOException("Remap manifest is corrupt (trailing data)");
+        }
+        return manifest;
+    }
+
+    @NotNull
+    private final Map<@NotNull String, @NotNull RemapRecord> records = new LinkedHashMap<>();
+
+    /**
+     * Check whether the manifest contains an entry for the class with the given name.
+     *
+     * @param className The internal name of the class.
+     * @return True if the class was recorded, false otherwise.
+     */
+    public boolean contains(@NotNull String className) {
+        return this.records.containsKey(className);
+    }
+
+    /**
+     * Remap a mixin class through {@link MicromixinRemapper#remapClass(ClassNode)} and record the outcome.
+     * The mapping requests are emitted to the {@link MappingSink} of the remapper, just like they would be without
+     * recording. Recording a class that was already recorded replaces the previous entry.
+     *
+     * @param remapper The {@link MicromixinRemapper} to remap the class with.
+     * @param node The {@link ClassNode} to remap.
+     * @throws IllegalMixinException Thrown if the mixin contains illegal code.
+     * @throws MissingFeatureException Thrown due to {@link MicromixinRemapper#logUnimplementedFeature(String)}.
+     */
+    public void record(@NotNull MicromixinRemapper remapper, @NotNull ClassNode node) throws IllegalMixinException, MissingFeatureException {
+        Objects.requireNonNull(remapper, "Supplied argument 'remapper' may not be null.");
+        byte[] inputDigest = RemapRecord.digestInput(node);
+        BufferedMappingSink buffer = new BufferedMappingSink();
+        ResolutionBuffer resolutions = remapper.remapClassBuffered(node, buffer);
+        this.records.remove(node.name);
+        this.records.put(node.name, RemapRecord.capture(node, inputDigest, buffer, resolutions));
+        buffer.flush(remapper.getSink());
+        resolutions.flush(remapper);
+    }
+
+    /**
+     * Replay the recorded outcome of a class without recording it's selector resolutions.
+     * See {@link #replay(ClassNode, MappingSink, SelectorResolutionTable)} for further details.
+     *
+     * @param node The {@link ClassNode} to replay the outcome onto.
+     * @param sink The {@link MappingSink} to emit the recorded mapping requests to.
+     * @return True if the outcome was replayed, false if the class is not part of the manifest or does not match.
+     */
+    public boolean replay(@NotNull ClassNode node, @NotNull MappingSink sink) {
+        return this.replay(node, sink, null);
+    }
+
+    /**
+     * Replay the recorded outcome of a class: The recorded annotations are applied onto the {@link ClassNode},
+     * the recorded mapping requests are emitted to the supplied {@link MappingSink} and the recorded selector
+     * resolutions are recorded in the supplied {@link SelectorResolutionTable}. Nothing is resolved.
+     *
+     * <p>The {@link ClassNode} must be read from the same class file as the class that was recorded.
+     * The class is not modified if it is not part of the manifest or if it's members or annotations differ from
+     * the recorded class.
+     *
+     * @param node The {@link ClassNode} to replay the outcome onto.
+     * @param sink The {@link MappingSink} to emit the recorded mapping requests to.
+     * @param table The {@link SelectorResolutionTable} to record the selector resolutions into, or null.
+     * @return True if the outcome was replayed, false if the class is not part of the manifest or does not match.
+     */
+    public boolean replay(@NotNull ClassNode node, @NotNull MappingSink sink, @Nullable SelectorResolutionTable table) {
+        RemapRecord record = this.records.get(node.name);
+        if (record == null || !record.apply(node, sink)) {
+            return false;
+        }
+        record.getResolutions().flush(table);
+        return true;
+    }
+
+    /**
+     * Obtain the amount of classes that were recorded.
+     *
+     * @return The amount of entries in the manifest.
+     */
+    public int size() {
+        return this.records.size();
+    }
+
+    /**
+     * Write the manifest to a stream. The stream is not closed.
+     *
+     * @param out The stream to write the manifest to.
+     * @throws IOException If the stream could not be written.
+     */
+    public void write(@NotNull OutputStream out) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream payloadOut = new DataOutputStream(payload);
+        payloadOut.writeInt(this.records.size());
+        for (Map.Entry<@NotNull String, @NotNull RemapRecord> entry : this.records.entrySet()) {
+            payloadOut.writeUTF(entry.getKey());
+            entry.getValue().write(payloadOut);
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(compressed, deflater)) {
+            payload.writeTo(deflaterOut);
+        } finally {
+            deflater.end();
+        }
+        byte[] compressedBytes = compressed.toByteArray();
+
+        // The payload is length-prefixed, so that readers do not consume data following the manifest
+        byte[] header = ByteBuffer.allocate(RemapManifest.HEADER_LENGTH)
+                .putInt(RemapManifest.MAGIC)
+                .putInt(RemapManifest.FORMAT_VERSION)
+                .putInt(payload.size())
+                .putInt(compressedBytes.length)
+                .array();
+        CRC32 crc = new CRC32();
+        crc.update(header, 0, RemapManifest.HEADER_LENGTH - 4);
+        crc.update(compressedBytes);
+        ByteBuffer.wrap(header).putInt(RemapManifest.HEADER_LENGTH - 4, (int) crc.getValue());
+        out.write(header);
+        out.write(compressedBytes);
+    }
+}
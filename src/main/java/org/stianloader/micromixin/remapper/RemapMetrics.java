@@ -0,0 +1,161 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link RemapMetricsListener} which aggregates all events into counters. The counters are backed by
+ * {@link LongAdder LongAdders}, meaning that they can be updated by multiple threads concurrently with little
+ * contention and can be read at any time, for example while a parallel batch is still running.
+ */
+public class RemapMetrics implements RemapMetricsListener {
+
+    private static final class AnnotationTimer {
+        @NotNull
+        private final LongAdder count = new LongAdder();
+        @NotNull
+        private final LongAdder nanos = new LongAdder();
+    }
+
+    @NotNull
+    private final Map<@NotNull String, @NotNull AnnotationTimer> annotationTimers = new ConcurrentHashMap<>();
+    @NotNull
+    private final LongAdder hierarchyQueries = new LongAdder();
+    @NotNull
+    private final LongAdder inferenceQueries = new LongAdder();
+    @NotNull
+    private final LongAdder lookupQueries = new LongAdder();
+    @NotNull
+    private final Map<@NotNull SelectorOutcome, @NotNull LongAdder> selectorOutcomes = new EnumMap<>(SelectorOutcome.class);
+
+    public RemapMetrics() {
+        for (SelectorOutcome outcome : SelectorOutcome.values()) {
+            this.selectorOutcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    /**
+     * Obtain the amount of processed annotations of the given type.
+     *
+     * @param annotationDesc The descriptor of the annotation.
+     * @return The amount of processed annotations.
+     */
+    public long getAnnotationCount(@NotNull String annotationDesc) {
+        AnnotationTimer timer = this.annotationTimers.get(annotationDesc);
+        return timer == null ? 0L : timer.count.sum();
+    }
+
+    /**
+     * Obtain the total time spent processing annotations of the given type.
+     *
+     * @param annotationDesc The descriptor of the annotation.
+     * @return The total processing time, in nanoseconds.
+     */
+    public long getAnnotationNanos(@NotNull String annotationDesc) {
+        AnnotationTimer timer = this.annotationTimers.get(annotationDesc);
+        return timer == null ? 0L : timer.nanos.sum();
+    }
+
+    /**
+     * Obtain the descriptors of all annotation types that were processed so far.
+     *
+     * @return An unmodifiable view of the processed annotation types.
+     */
+    @NotNull
+    public Set<@NotNull String> getAnnotationTypes() {
+        return Collections.unmodifiableSet(this.annotationTimers.keySet());
+    }
+
+    /**
+     * Obtain the amount of calls to {@link MemberLister#hasMemberInHierarchy(String, String, String)}.
+     *
+     * @return The amount of hierarchy queries.
+     */
+    public long getHierarchyQueries() {
+        return this.hierarchyQueries.sum();
+    }
+
+    /**
+     * Obtain the amount of calls to {@link MemberLister#tryInferMember(String, String, String)}.
+     *
+     * @return The amount of inference queries.
+     */
+    public long getInferenceQueries() {
+        return this.inferenceQueries.sum();
+    }
+
+    /**
+     * Obtain the amount of calls to the {@link org.stianloader.remapper.MappingLookup}.
+     *
+     * @return The amount of lookup queries.
+     */
+    public long getLookupQueries() {
+        return this.lookupQueries.sum();
+    }
+
+    /**
+     * Obtain the amount of selector resolutions with the given outcome.
+     *
+     * @param outcome The outcome.
+     * @return The amount of resolutions with the given outcome.
+     */
+    public long getSelectorResolutions(@NotNull SelectorOutcome outcome) {
+        return this.selectorOutcomes.get(outcome).sum();
+    }
+
+    @Override
+    public void onAnnotationProcessed(@NotNull String annotationDesc, long elapsedNanos) {
+        AnnotationTimer timer = this.annotationTimers.get(annotationDesc);
+        if (timer == null) {
+            timer = this.annotationTimers.computeIfAbsent(annotationDesc, (ignore) -> new AnnotationTimer());
+        }
+        timer.count.increment();
+        timer.nanos.add(elapsedNanos);
+    }
+
+    @Override
+    public void onHierarchyQuery() {
+        this.hierarchyQueries.increment();
+    }
+
+    @Override
+    public void onInferenceQuery() {
+        this.inferenceQueries.increment();
+    }
+
+    @Override
+    public void onLookupQuery() {
+        this.lookupQueries.increment();
+    }
+
+    @Override
+    public void onSelectorResolved(@NotNull SelectorOutcome outcome) {
+        this.selectorOutcomes.get(outcome).increment();
+    }
+
+    @Override
+    @NotNull
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RemapMetrics[lookupQueries=").append(this.getLookupQueries())
+                .append(", hierarchyQueries=").append(this.getHierarchyQueries())
+                .append(", inferenceQueries=").append(this.getInferenceQueries())
+                .append(", selectors=").append(this.selectorOutcomes)
+                .append(", annotations={");
+        boolean first = true;
+        for (Map.Entry<@NotNull String, @NotNull AnnotationTimer> entry : this.annotationTimers.entrySet()) {
+            if (!first) {
+                builder.append(", ");
+            }
+            first = false;
+            builder.append(entry.getKey()).append('=').append(entry.getValue().count.sum())
+                    .append('/').append(entry.getValue().nanos.sum()).append("ns");
+        }
+        return builder.append("}]").toString();
+    }
+}
@@ -0,0 +1,83 @@
+package org.stianloader.micromixin.remapper;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.tree.ClassNode;
+import org.stianloader.remapper.MappingLookup;
+
+/**
+ * A listener which is notified about the work performed by a {@link MicromixinRemapper}, installed through
+ * {@link MicromixinRemapper#setMetricsListener(RemapMetricsListener)}. {@link RemapMetrics} is a ready-to-use
+ * implementation which aggregates all events into counters.
+ *
+ * <p>Listeners may be notified from multiple threads concurrently, for example when using
+ * {@link MicromixinRemapper#remapClasses(java.util.Collection, java.util.concurrent.Executor)}.
+ * Listeners are invoked on the hot path of the remapper, so implementations should be cheap.
+ */
+public interface RemapMetricsListener {
+
+    /**
+     * The outcome of resolving a single string target selector.
+     */
+    enum SelectorOutcome {
+        /**
+         * The selector was resolved using the selector cache (see {@link MicromixinRemapper#enableSelectorCache(int)}).
+         */
+        CACHED,
+        /**
+         * The selector was not fully qualified and the missing components were inferred
+         * using the {@link MemberLister}.
+         */
+        INFERRED,
+        /**
+         * The selector was fully qualified and was remapped without consulting the {@link MemberLister}.
+         */
+        QUALIFIED,
+        /**
+         * The selector was not fully qualified and the inferred candidates had torn mappings.
+         * The selector was remapped after {@link MicromixinRemapper#logUnimplementedFeature(String)}
+         * did not throw.
+         */
+        TORN,
+        /**
+         * The selector could not be resolved and was left as-is after
+         * {@link MicromixinRemapper#logUnimplementedFeature(String)} did not throw.
+         */
+        UNRESOLVED;
+    }
+
+    /**
+     * Called after a mixin annotation on a method or a field was processed by
+     * {@link MicromixinRemapper#remapClass(ClassNode)}. Not called if processing the annotation failed.
+     *
+     * @param annotationDesc The descriptor of the annotation, for example <code>Lorg/spongepowered/asm/mixin/Shadow;</code>.
+     * @param elapsedNanos The time spent processing the annotation, in nanoseconds.
+     */
+    void onAnnotationProcessed(@NotNull String annotationDesc, long elapsedNanos);
+
+    /**
+     * Called whenever the remapper calls {@link MemberLister#hasMemberInHierarchy(String, String, String)}
+     * or {@link MemberLister#filterMemberInHierarchy(java.util.Collection, String, String)}. A bulk query
+     * is reported as a single query.
+     */
+    void onHierarchyQuery();
+
+    /**
+     * Called whenever the remapper calls {@link MemberLister#tryInferMember(String, String, String)}
+     * or {@link MemberLister#tryInferMembers(java.util.Collection, String, String)}. A bulk query
+     * is reported as a single query.
+     */
+    void onInferenceQuery();
+
+    /**
+     * Called whenever the remapper (or one of the {@link org.stianloader.micromixin.remapper.selectors.AtSelector AtSelectors}
+     * it delegates to) calls any method of it's {@link MappingLookup}.
+     */
+    void onLookupQuery();
+
+    /**
+     * Called after a string target selector was resolved.
+     *
+     * @param outcome The outcome of the resolution.
+     */
+    void onSelectorResolved(@NotNull SelectorOutcome outcome);
+}
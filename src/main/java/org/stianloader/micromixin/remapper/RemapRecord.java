@@ -0,0 +1,419 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * The outcome of {@link MicromixinRemapper#remapClass(ClassNode)} for a single class: The annotations
+ * after remapping, all emitted mapping requests and the selector resolutions made while remapping the class. A record can be applied onto a {@link ClassNode}
+ * read from the same class file in order to reproduce the outcome without resolving anything.
+ *
+ * <p>Only the annotations that {@link MicromixinRemapper} modifies are recorded, that is the invisible annotations
+ * of the class and the visible annotations of the class' methods and fields. Members are identified by their index
+ * within {@link ClassNode#methods} or {@link ClassNode#fields}.
+ *
+ * <p>A record stores a digest of the input of the remapper, that is the name of the class, the name, descriptor and
+ * access flags of all members as well as the annotations listed above before remapping. A record is only applied
+ * onto a {@link ClassNode} whose input digest matches, as the recorded outcome would be stale otherwise.
+ */
+final class RemapRecord {
+
+    private static final class MemberAnnotations {
+        @Nullable
+        private final List<AnnotationNode> annotations;
+        @NotNull
+        private final String desc;
+        @NotNull
+        private final String name;
+
+        private MemberAnnotations(@NotNull String name, @NotNull String desc, @Nullable List<AnnotationNode> annotations) {
+            this.name = name;
+            this.desc = desc;
+            this.annotations = annotations;
+        }
+    }
+
+    private static final int DIGEST_LENGTH = 32;
+    private static final int MINIMUM_ANNOTATION_SIZE = 4;
+    private static final int MINIMUM_MEMBER_SIZE = 8;
+    private static final int MINIMUM_VALUE_SIZE = 1;
+    private static final byte TAG_ANNOTATION = '@';
+    private static final byte TAG_BOOLEAN = 'Z';
+    private static final byte TAG_BYTE = 'B';
+    private static final byte TAG_CHAR = 'C';
+    private static final byte TAG_DOUBLE = 'D';
+    private static final byte TAG_ENUM = 'e';
+    private static final byte TAG_FLOAT = 'F';
+    private static final byte TAG_INT = 'I';
+    private static final byte TAG_LIST = '[';
+    private static final byte TAG_LONG = 'J';
+    private static final byte TAG_SHORT = 'S';
+    private static final byte TAG_STRING = 's';
+    private static final byte TAG_TYPE = 'T';
+
+    /**
+     * Capture the outcome of remapping a class.
+     *
+     * @param node The {@link ClassNode} after remapping.
+     * @param inputDigest The {@link #digestInput(ClassNode) input digest} of the class before remapping.
+     * @param requests The mapping requests emitted while remapping the class.
+     * @param resolutions The selector resolutions made while remapping the class.
+     * @return The captured record.
+     */
+    @NotNull
+    static RemapRecord capture(@NotNull ClassNode node, byte @NotNull[] inputDigest, @NotNull BufferedMappingSink requests, @NotNull ResolutionBuffer resolutions) {
+        List<@NotNull MemberAnnotations> methods = new ArrayList<>(node.methods.size());
+        for (MethodNode method : node.methods) {
+            methods.add(new MemberAnnotations(method.name, method.desc, RemapRecord.copyAnnotations(method.visibleAnnotations)));
+        }
+        List<@NotNull MemberAnnotations> fields = new ArrayList<>(node.fields.size());
+        for (FieldNode field : node.fields) {
+            fields.add(new MemberAnnotations(field.name, field.desc, RemapRecord.copyAnnotations(field.visibleAnnotations)));
+        }
+        return new RemapRecord(inputDigest, RemapRecord.copyAnnotations(node.invisibleAnnotations), methods, fields, requests, resolutions);
+    }
+
+    /**
+     * Deep-copy a list of annotations, so that modifying the values of the copies does not affect the originals.
+     *
+     * @param annotations The annotations to copy.
+     * @return The copied annotations, or null if the input is null.
+     */
+    @Nullable
+    static List<AnnotationNode> copyAnnotations(@Nullable List<AnnotationNode> annotations) {
+        if (annotations == null) {
+            return null;
+        }
+        List<AnnotationNode> copy = new ArrayList<>(annotations.size());
+        for (AnnotationNode annotation : annotations) {
+            AnnotationNode annotationCopy = new AnnotationNode(annotation.desc);
+            annotation.accept(annotationCopy);
+            copy.add(annotationCopy);
+        }
+        return copy;
+    }
+
+    /**
+     * Compute the SHA-256 digest of everything {@link MicromixinRemapper#remapClass(ClassNode)} reads from a class,
+     * that is the name of the class, the name, descriptor and access flags of it's members and the annotations
+     * which are subject to remapping. Must be called before the class is remapped.
+     *
+     * @param node The {@link ClassNode} to digest.
+     * @return The input digest of the class.
+     */
+    static byte @NotNull[] digestInput(@NotNull ClassNode node) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeUTF(node.name);
+            RemapRecord.writeAnnotations(out, node.invisibleAnnotations);
+            out.writeInt(node.methods.size());
+            for (MethodNode method : node.methods) {
+                out.writeUTF(method.name);
+                out.writeUTF(method.desc);
+                out.writeInt(method.access);
+                RemapRecord.writeAnnotations(out, method.visibleAnnotations);
+            }
+            out.writeInt(node.fields.size());
+            for (FieldNode field : node.fields) {
+                out.writeUTF(field.name);
+                out.writeUTF(field.desc);
+                out.writeInt(field.access);
+                RemapRecord.writeAnnotations(out, field.visibleAnnotations);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a ByteArrayOutputStream should never fail", e);
+        }
+
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+    }
+
+    /**
+     * Check an amount of elements read from untrusted input, so that corrupt input fails with an {@link IOException}
+     * instead of causing huge allocations.
+     *
+     * @param in The input the amount was read from.
+     * @param count The amount of elements.
+     * @param minimumElementSize The minimum amount of bytes a single element occupies.
+     * @return The amount of elements.
+     * @throws IOException If the amount is negative or the remaining input is too short to hold that many elements.
+     */
+    private static int checkCount(@NotNull DataInputStream in, int count, int minimumElementSize) throws IOException {
+        if (count < 0 || (long) count * minimumElementSize > in.available()) {
+            throw new IOException("Corrupt remap record: Invalid element count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Read a record previously written through {@link #write(DataOutput)}. The stream must be backed by the entire
+     * payload held in memory (such as a {@link java.io.ByteArrayInputStream}), as {@link DataInputStream#available()}
+     * is used to reject corrupt element counts.
+     *
+     * @param in The stream to read the record from.
+     * @return The read record.
+     * @throws IOException If the record is corrupt.
+     */
+    @NotNull
+    static RemapRecord read(@NotNull DataInputStream in) throws IOException {
+        byte[] inputDigest = new byte[RemapRecord.DIGEST_LENGTH];
+        in.readFully(inputDigest);
+        List<AnnotationNode> classAnnotations = RemapRecord.readAnnotations(in);
+        List<@NotNull MemberAnnotations> methods = RemapRecord.readMembers(in);
+        List<@NotNull MemberAnnotations> fields = RemapRecord.readMembers(in);
+        BufferedMappingSink requests = BufferedMappingSink.read(in, in.available() / BufferedMappingSink.MINIMUM_REQUEST_SIZE);
+        ResolutionBuffer resolutions = ResolutionBuffer.read(in, in.available() / ResolutionBuffer.MINIMUM_RESOLUTION_SIZE);
+        return new RemapRecord(inputDigest, classAnnotations, methods, fields, requests, resolutions);
+    }
+
+    @NotNull
+    private static AnnotationNode readAnnotation(@NotNull DataInputStream in) throws IOException {
+        AnnotationNode annotation = new AnnotationNode(in.readUTF());
+        // Each value consists of at least the length of it's name and a tag
+        int size = RemapRecord.checkCount(in, in.readUnsignedShort(), 2 + RemapRecord.MINIMUM_VALUE_SIZE);
+        if (size != 0) {
+            annotation.values = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                annotation.values.add(in.readUTF());
+                annotation.values.add(RemapRecord.readValue(in));
+            }
+        }
+        return annotation;
+    }
+
+    @Nullable
+    private static List<AnnotationNode> readAnnotations(@NotNull DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size == -1) {
+            return null;
+        }
+        RemapRecord.checkCount(in, size, RemapRecord.MINIMUM_ANNOTATION_SIZE);
+        List<AnnotationNode> annotations = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            annotations.add(RemapRecord.readAnnotation(in));
+        }
+        return annotations;
+    }
+
+    @NotNull
+    private static List<@NotNull MemberAnnotations> readMembers(@NotNull DataInputStream in) throws IOException {
+        int size = RemapRecord.checkCount(in, in.readInt(), RemapRecord.MINIMUM_MEMBER_SIZE);
+        List<@NotNull MemberAnnotations> members = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            members.add(new MemberAnnotations(in.readUTF(), in.readUTF(), RemapRecord.readAnnotations(in)));
+        }
+        return members;
+    }
+
+    @NotNull
+    private static Object readValue(@NotNull DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case TAG_ANNOTATION:
+            return RemapRecord.readAnnotation(in);
+        case TAG_BOOLEAN:
+            return in.readBoolean();
+        case TAG_BYTE:
+            return in.readByte();
+        case TAG_CHAR:
+            return in.readChar();
+        case TAG_DOUBLE:
+            return in.readDouble();
+        case TAG_ENUM:
+            return new String[] {in.readUTF(), in.readUTF()};
+        case TAG_FLOAT:
+            return in.readFloat();
+        case TAG_INT:
+            return in.readInt();
+        case TAG_LIST:
+            int size = RemapRecord.checkCount(in, in.readUnsignedShort(), RemapRecord.MINIMUM_VALUE_SIZE);
+            List<Object> list = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                list.add(RemapRecord.readValue(in));
+            }
+            return list;
+        case TAG_LONG:
+            return in.readLong();
+        case TAG_SHORT:
+            return in.readShort();
+        case TAG_STRING:
+            return in.readUTF();
+        case TAG_TYPE:
+            return Type.getType(in.readUTF());
+        default:
+            throw new IOException("Unknown annotation value tag: " + tag);
+        }
+    }
+
+    private static void writeAnnotation(@NotNull DataOutput out, @NotNull AnnotationNode annotation) throws IOException {
+        out.writeUTF(annotation.desc);
+        if (annotation.values == null) {
+            out.writeShort(0);
+            return;
+        }
+        out.writeShort(annotation.values.size() / 2);
+        for (int i = 0; i < annotation.values.size(); i += 2) {
+            out.writeUTF((String) annotation.values.get(i));
+            RemapRecord.writeValue(out, annotation.values.get(i + 1));
+        }
+    }
+
+    private static void writeAnnotations(@NotNull DataOutput out, @Nullable List<AnnotationNode> annotations) throws IOException {
+        if (annotations == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(annotations.size());
+        for (AnnotationNode annotation : annotations) {
+            RemapRecord.writeAnnotation(out, annotation);
+        }
+    }
+
+    private static void writeMembers(@NotNull DataOutput out, @NotNull List<@NotNull MemberAnnotations> members) throws IOException {
+        out.writeInt(members.size());
+        for (MemberAnnotations member : members) {
+            out.writeUTF(member.name);
+            out.writeUTF(member.desc);
+            RemapRecord.writeAnnotations(out, member.annotations);
+        }
+    }
+
+    private static void writeValue(@NotNull DataOutput out, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(RemapRecord.TAG_STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof Type) {
+            out.writeByte(RemapRecord.TAG_TYPE);
+            out.writeUTF(((Type) value).getDescriptor());
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(RemapRecord.TAG_LIST);
+            out.writeShort(list.size());
+            for (Object element : list) {
+                RemapRecord.writeValue(out, element);
+            }
+        } else if (value instanceof AnnotationNode) {
+            out.writeByte(RemapRecord.TAG_ANNOTATION);
+            RemapRecord.writeAnnotation(out, (AnnotationNode) value);
+        } else if (value instanceof String[]) {
+            String[] enumValue = (String[]) value;
+            out.writeByte(RemapRecord.TAG_ENUM);
+            out.writeUTF(enumValue[0]);
+            out.writeUTF(enumValue[1]);
+        } else if (value instanceof Integer) {
+            out.writeByte(RemapRecord.TAG_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(RemapRecord.TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(RemapRecord.TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            out.writeByte(RemapRecord.TAG_CHAR);
+            out.writeChar((Character) value);
+        } else if (value instanceof Short) {
+            out.writeByte(RemapRecord.TAG_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Long) {
+            out.writeByte(RemapRecord.TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(RemapRecord.TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(RemapRecord.TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported annotation value: " + value + " (" + (value == null ? null : value.getClass()) + ")");
+        }
+    }
+
+    @Nullable
+    private final List<AnnotationNode> classAnnotations;
+    @NotNull
+    private final List<@NotNull MemberAnnotations> fields;
+    @NotNull
+    private final List<@NotNull MemberAnnotations> methods;
+    private final byte @NotNull[] inputDigest;
+    @NotNull
+    private final BufferedMappingSink requests;
+    @NotNull
+    private final ResolutionBuffer resolutions;
+
+    private RemapRecord(byte @NotNull[] inputDigest, @Nullable List<AnnotationNode> classAnnotations, @NotNull List<@NotNull MemberAnnotations> methods,
+            @NotNull List<@NotNull MemberAnnotations> fields, @NotNull BufferedMappingSink requests, @NotNull ResolutionBuffer resolutions) {
+        this.inputDigest = inputDigest;
+        this.classAnnotations = classAnnotations;
+        this.methods = methods;
+        this.fields = fields;
+        this.requests = requests;
+        this.resolutions = resolutions;
+    }
+
+    /**
+     * Apply the recorded annotations onto the given {@link ClassNode} and emit the recorded mapping requests
+     * to the given {@link MappingSink}. The class is not modified if it's {@link #digestInput(ClassNode) input digest}
+     * does not match the recorded input digest. The recorded selector resolutions are obtained separately through
+     * {@link #getResolutions()}.
+     *
+     * @param node The {@link ClassNode} to apply the record onto.
+     * @param sink The {@link MappingSink} to emit the recorded mapping requests to.
+     * @return True if the record was applied, false if the class does not match the record.
+     */
+    boolean apply(@NotNull ClassNode node, @NotNull MappingSink sink) {
+        if (!MessageDigest.isEqual(this.inputDigest, RemapRecord.digestInput(node))) {
+            return false;
+        }
+
+        node.invisibleAnnotations = RemapRecord.copyAnnotations(this.classAnnotations);
+        for (int i = 0; i < this.methods.size(); i++) {
+            node.methods.get(i).visibleAnnotations = RemapRecord.copyAnnotations(this.methods.get(i).annotations);
+        }
+        for (int i = 0; i < this.fields.size(); i++) {
+            node.fields.get(i).visibleAnnotations = RemapRecord.copyAnnotations(this.fields.get(i).annotations);
+        }
+        this.requests.flush(sink);
+        return true;
+    }
+
+    /**
+     * Obtain the selector resolutions made while remapping the class, which are to be replayed into a
+     * {@link SelectorResolutionTable} once the record was {@link #apply(ClassNode, MappingSink) applied}.
+     *
+     * @return The recorded selector resolutions.
+     */
+    @NotNull
+    ResolutionBuffer getResolutions() {
+        return this.resolutions;
+    }
+
+    void write(@NotNull DataOutput out) throws IOException {
+        out.write(this.inputDigest);
+        RemapRecord.writeAnnotations(out, this.classAnnotations);
+        RemapRecord.writeMembers(out, this.methods);
+        RemapRecord.writeMembers(out, this.fields);
+        this.requests.write(out);
+        this.resolutions.write(out);
+    }
+}
@@ -0,0 +1,136 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Buffers the selector resolutions of a single mixin class while it is being remapped, so that they only reach
+ * the {@link SelectorResolutionTable} once the class was remapped successfully and so that they can be stored
+ * alongside a {@link RemapRecord}. The buffer is bound to the remapping thread for the duration of the remapping
+ * process, during which {@link MicromixinRemapper} records resolutions into the buffer instead of the table.
+ *
+ * <p>Instances of this class are not thread-safe and are meant to be confined to the thread
+ * remapping a single mixin class.
+ */
+final class ResolutionBuffer {
+
+    @NotNull
+    private static final ThreadLocal<ResolutionBuffer> ACTIVE = new ThreadLocal<>();
+
+    /**
+     * The minimum amount of bytes a single resolution occupies in the format of {@link #write(DataOutput)}.
+     */
+    static final int MINIMUM_RESOLUTION_SIZE = 6;
+
+    /**
+     * Obtain the buffer bound to the current thread.
+     *
+     * @return The active buffer, or null if resolutions of the current thread are not buffered.
+     */
+    @Nullable
+    static ResolutionBuffer getActive() {
+        return ResolutionBuffer.ACTIVE.get();
+    }
+
+    /**
+     * Read resolutions previously written through {@link #write(DataOutput)}, rejecting inputs that claim to
+     * contain more than the given amount of resolutions.
+     *
+     * @param in The input to read the resolutions from.
+     * @param maximumCount The maximum amount of resolutions that may be read.
+     * @return A {@link ResolutionBuffer} containing the read resolutions.
+     * @throws IOException If the resolutions could not be read or their amount is negative or exceeds the maximum.
+     */
+    @NotNull
+    static ResolutionBuffer read(@NotNull DataInput in, int maximumCount) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > maximumCount) {
+            throw new IOException("Invalid amount of selector resolutions: " + count);
+        }
+        ResolutionBuffer resolutions = new ResolutionBuffer();
+        for (int i = count; i > 0; i--) {
+            resolutions.record(in.readUTF(), in.readUTF(), in.readUTF());
+        }
+        return resolutions;
+    }
+
+    @Nullable
+    private ResolutionBuffer previous;
+    /**
+     * The buffered resolutions, stored as triples of the name of the mixin class, the selector
+     * and the resolved selector.
+     */
+    @NotNull
+    private final List<@NotNull String> resolutions = new ArrayList<>();
+
+    /**
+     * Bind this buffer to the current thread. Every call must be followed by a call to {@link #deactivate()}.
+     */
+    void activate() {
+        this.previous = ResolutionBuffer.ACTIVE.get();
+        ResolutionBuffer.ACTIVE.set(this);
+    }
+
+    /**
+     * Unbind this buffer from the current thread, restoring the previously bound buffer.
+     */
+    void deactivate() {
+        if (this.previous == null) {
+            ResolutionBuffer.ACTIVE.remove();
+        } else {
+            ResolutionBuffer.ACTIVE.set(this.previous);
+            this.previous = null;
+        }
+    }
+
+    /**
+     * Record all buffered resolutions through the given remapper, as if they were resolved by it. Should another
+     * buffer be bound to the current thread, the resolutions are recorded into that buffer.
+     *
+     * @param remapper The {@link MicromixinRemapper} whose {@link SelectorResolutionTable} receives the resolutions.
+     */
+    void flush(@NotNull MicromixinRemapper remapper) {
+        for (int i = 0; i < this.resolutions.size(); i += 3) {
+            remapper.recordResolution(this.resolutions.get(i), this.resolutions.get(i + 1), this.resolutions.get(i + 2));
+        }
+    }
+
+    /**
+     * Record all buffered resolutions into the given table.
+     *
+     * @param table The {@link SelectorResolutionTable} to record the resolutions into, or null to discard them.
+     */
+    void flush(@Nullable SelectorResolutionTable table) {
+        if (table == null) {
+            return;
+        }
+        for (int i = 0; i < this.resolutions.size(); i += 3) {
+            table.record(this.resolutions.get(i), this.resolutions.get(i + 1), this.resolutions.get(i + 2));
+        }
+    }
+
+    void record(@NotNull String mixinClass, @NotNull String selector, @NotNull String resolved) {
+        this.resolutions.add(mixinClass);
+        this.resolutions.add(selector);
+        this.resolutions.add(resolved);
+    }
+
+    /**
+     * Write all buffered resolutions in a compact binary format.
+     *
+     * @param out The output to write the resolutions to.
+     * @throws IOException If the output could not be written to.
+     */
+    void write(@NotNull DataOutput out) throws IOException {
+        out.writeInt(this.resolutions.size() / 3);
+        for (String string : this.resolutions) {
+            out.writeUTF(string);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A table of the target selectors a {@link MicromixinRemapper} resolved, keyed by the mixin class declaring the selector
+ * and the selector as written in the source namespace. The resolved value is the fully qualified selector in the
+ * destination namespace as it was written back into the annotation, that is <code>Lowner;name desc</code>,
+ * or <code>Lowner;name:desc</code> for fields.
+ *
+ * <p>Entries of <code>&#64;Desc</code> annotations are keyed by the fully qualified member in the source namespace,
+ * as the annotation has no textual representation. Selectors that could not be resolved unambiguously are not recorded.
+ *
+ * <p>The table can be written in the layout of a Mixin reference map through {@link #writeJson(Writer)}, which allows
+ * to inspect the decisions made by the remapper. Recording a table is optional and enabled through
+ * {@link MicromixinRemapper#setResolutionTable(SelectorResolutionTable)}. Instances of this class are thread-safe.
+ */
+public class SelectorResolutionTable {
+
+    private static void writeJsonString(@NotNull Writer writer, @NotNull String string) throws IOException {
+        writer.write('"');
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    @NotNull
+    private final Map<@NotNull String, @NotNull Map<@NotNull String, @NotNull String>> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * Remove all recorded resolutions.
+     */
+    public void clear() {
+        this.resolutions.clear();
+    }
+
+    /**
+     * Obtain the internal names of all mixin classes for which at least one resolution was recorded.
+     *
+     * @return An unmodifiable view of the names of the mixin classes.
+     */
+    @NotNull
+    public Set<@NotNull String> getMixinClasses() {
+        return Collections.unmodifiableSet(this.resolutions.keySet());
+    }
+
+    /**
+     * Obtain the resolution of a selector.
+     *
+     * @param mixinClass The internal name of the mixin class declaring the selector.
+     * @param selector The selector in the source namespace.
+     * @return The fully qualified selector in the destination namespace, or null if no resolution was recorded.
+     */
+    @Nullable
+    public String getResolution(@NotNull String mixinClass, @NotNull String selector) {
+        Map<@NotNull String, @NotNull String> selectors = this.resolutions.get(mixinClass);
+        return selectors == null ? null : selectors.get(selector);
+    }
+
+    /**
+     * Obtain all resolutions recorded for a mixin class.
+     *
+     * @param mixinClass The internal name of the mixin class.
+     * @return An unmodifiable view of the recorded resolutions, keyed by the selector in the source namespace.
+     */
+    @NotNull
+    public Map<@NotNull String, @NotNull String> getResolutions(@NotNull String mixinClass) {
+        Map<@NotNull String, @NotNull String> selectors = this.resolutions.get(mixinClass);
+        return selectors == null ? Collections.emptyMap() : Collections.unmodifiableMap(selectors);
+    }
+
+    void record(@NotNull String mixinClass, @NotNull String selector, @NotNull String resolved) {
+        this.resolutions.computeIfAbsent(mixinClass, (ignore) -> new ConcurrentHashMap<>()).put(selector, resolved);
+    }
+
+    /**
+     * Write the table as JSON in the layout of a Mixin reference map, that is
+     * <code>{"mappings":{"mixin/Class":{"selector":"Lowner;name desc"}}}</code>.
+     * Keys are sorted, so that writing the same table twice yields identical output. The writer is neither flushed
+     * nor closed.
+     *
+     * @param writer The writer to write the JSON document to.
+     * @throws IOException If the writer could not be written to.
+     */
+    public void writeJson(@NotNull Writer writer) throws IOException {
+        Objects.requireNonNull(writer, "Supplied argument 'writer' may not be null.");
+        writer.write("{\n  \"mappings\": {");
+        boolean firstClass = true;
+        for (Map.Entry<@NotNull String, @NotNull Map<@NotNull String, @NotNull String>> mixin : new TreeMap<>(this.resolutions).entrySet()) {
+            writer.write(firstClass ? "\n    " : ",\n    ");
+            firstClass = false;
+            SelectorResolutionTable.writeJsonString(writer, mixin.getKey());
+            writer.write(": {");
+            boolean firstSelector = true;
+            for (Map.Entry<@NotNull String, @NotNull String> selector : new TreeMap<>(mixin.getValue()).entrySet()) {
+                writer.write(firstSelector ? "\n      " : ",\n      ");
+                firstSelector = false;
+                SelectorResolutionTable.writeJsonString(writer, selector.getKey());
+                writer.write(": ");
+                SelectorResolutionTable.writeJsonString(writer, selector.getValue());
+            }
+            writer.write(firstSelector ? "}" : "\n    }");
+        }
+        writer.write(firstClass ? "}\n}\n" : "\n  }\n}\n");
+    }
+}
@@ -0,0 +1,133 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.jetbrains.annotations.NotNull;
+import org.stianloader.remapper.MappingSink;
+import org.stianloader.remapper.MemberRef;
+
+/**
+ * A {@link MappingSink} adapter that allows {@link MicromixinRemapper#remapClass(org.objectweb.asm.tree.ClassNode)}
+ * to be invoked from multiple threads concurrently even if the actual {@link MappingSink} is not thread-safe.
+ *
+ * <p>All mapping requests are staged in a per-thread buffer without any locking. Once all threads are done
+ * emitting mapping requests, {@link #merge(MappingSink)} must be called in order to emit the staged requests to
+ * the actual {@link MappingSink}. The requests are emitted in a stable order that does not depend on the thread
+ * scheduling: First all class renames sorted by the source name, then all member renames sorted by owner, name
+ * and descriptor (in that order of precedence).
+ *
+ * <p>If the same class or member is renamed to two different names (regardless of whether this was caused by the
+ * same thread or by different threads), the merge is aborted and the conflicts are reported instead of letting
+ * the last writer win.
+ */
+public final class StagingMappingSink implements MappingSink {
+
+    private static final class Stage {
+        @NotNull
+        private final List<@NotNull String> classRequests = new ArrayList<>();
+        @NotNull
+        private final List<@NotNull Object> memberRequests = new ArrayList<>();
+    }
+
+    @NotNull
+    private static final Comparator<@NotNull MemberRef> MEMBER_ORDER = Comparator.comparing(MemberRef::getOwner)
+            .thenComparing(MemberRef::getName)
+            .thenComparing(MemberRef::getDesc);
+
+    @NotNull
+    private final ThreadLocal<@NotNull Stage> localStage = ThreadLocal.withInitial(this::createStage);
+    @NotNull
+    private final Queue<@NotNull Stage> stages = new ConcurrentLinkedQueue<>();
+
+    @NotNull
+    private Stage createStage() {
+        Stage stage = new Stage();
+        this.stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Emit all staged mapping requests to the given {@link MappingSink} in a deterministic order, after which
+     * the staged requests are discarded.
+     *
+     * <p>This method must not be called while other threads are still emitting mapping requests to this sink.
+     * Usually, the threads that used this sink are joined before calling this method, which establishes the
+     * necessary happens-before relationship.
+     *
+     * <p>If two different names were assigned to the same class or member, no mapping requests are emitted
+     * at all and the staged requests are retained.
+     *
+     * @param sink The {@link MappingSink} to emit the staged mapping requests to.
+     * @throws IllegalMixinException If conflicting names were assigned to the same class or member.
+     */
+    public void merge(@NotNull MappingSink sink) throws IllegalMixinException {
+        Map<@NotNull String, @NotNull String> classes = new TreeMap<>();
+        Map<@NotNull MemberRef, @NotNull String> members = new TreeMap<>(StagingMappingSink.MEMBER_ORDER);
+        StringBuilder conflicts = null;
+
+        for (Stage stage : this.stages) {
+            for (int i = 0; i < stage.classRequests.size(); i += 2) {
+                String srcName = stage.classRequests.get(i);
+                String dstName = stage.classRequests.get(i + 1);
+                String existing = classes.putIfAbsent(srcName, dstName);
+                if (existing != null && !existing.equals(dstName)) {
+                    if (conflicts == null) {
+                        conflicts = new StringBuilder();
+                    }
+                    conflicts.append("\n\tClass ").append(srcName).append(" is renamed to both ").append(existing).append(" and ").append(dstName);
+                }
+            }
+            for (int i = 0; i < stage.memberRequests.size(); i += 2) {
+                MemberRef srcRef = (MemberRef) stage.memberRequests.get(i);
+                String dstName = (String) stage.memberRequests.get(i + 1);
+                String existing = members.putIfAbsent(srcRef, dstName);
+                if (existing != null && !existing.equals(dstName)) {
+                    if (conflicts == null) {
+                        conflicts = new StringBuilder();
+                    }
+                    conflicts.append("\n\tMember ").append(srcRef).append(" is renamed to both ").append(existing).append(" and ").append(dstName);
+                }
+            }
+        }
+
+        if (conflicts != null) {
+            throw new IllegalMixinException("Conflicting mapping requests were staged. This is likely caused by multiple mixins assigning different names to the same member (or class). Conflicts:" + conflicts);
+        }
+
+        for (Map.Entry<@NotNull String, @NotNull String> entry : classes.entrySet()) {
+            sink.remapClass(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<@NotNull MemberRef, @NotNull String> entry : members.entrySet()) {
+            sink.remapMember(entry.getKey(), entry.getValue());
+        }
+
+        for (Stage stage : this.stages) {
+            stage.classRequests.clear();
+            stage.memberRequests.clear();
+        }
+    }
+
+    @Override
+    @NotNull
+    public MappingSink remapClass(@NotNull String srcName, @NotNull String dstName) {
+        Stage stage = this.localStage.get();
+        stage.classRequests.add(srcName);
+        stage.classRequests.add(dstName);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public MappingSink remapMember(@NotNull MemberRef srcRef, @NotNull String dstName) {
+        Stage stage = this.localStage.get();
+        stage.memberRequests.add(srcRef);
+        stage.memberRequests.add(dstName);
+        return this;
+    }
+}
@@ -0,0 +1,271 @@
+package org.stianloader.micromixin.remapper;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.RecordComponentVisitor;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.stianloader.remapper.MappingSink;
+
+/**
+ * A {@link ClassVisitor} remapping the annotations of a mixin class while it is streamed from a
+ * {@link org.objectweb.asm.ClassReader} to another {@link ClassVisitor}. Only the annotations the remapper reads
+ * are buffered: The invisible annotations of the class until the first member is visited, the visible annotations
+ * of a method until it's code is visited and the fields of the class until all methods were visited. The latter is
+ * required as {@link MicromixinRemapper#remapClass(ClassNode)} remaps all methods before any field, while class files
+ * declare fields before methods. Instruction lists are never materialized.
+ *
+ * <p>The {@link ClassNode} passed to the annotation handlers is populated with stubs of the members visited so far,
+ * which carry the name, descriptor, access flags, signature and the visible annotations of the member, but
+ * no code. As methods are remapped while they are visited, handlers of method annotations only see the methods
+ * declared before the remapped method (and the method itself), but all fields. Handlers of field annotations see
+ * all members of the class.
+ *
+ * <p>Checked exceptions thrown by the remapper are wrapped in a {@link Failure}, which is unwrapped by
+ * {@link MicromixinRemapper#remapClass(org.objectweb.asm.ClassReader, ClassVisitor, int)}.
+ */
+final class StreamingMixinRemapper extends ClassVisitor {
+
+    /**
+     * Unchecked wrapper of the {@link IllegalMixinException} or {@link MissingFeatureException} that
+     * caused remapping to fail.
+     */
+    @SuppressWarnings("serial")
+    static final class Failure extends RuntimeException {
+        Failure(@NotNull Exception cause) {
+            super(cause);
+        }
+    }
+
+    private final class MethodRemapper extends MethodVisitor {
+        @NotNull
+        private final MethodNode method;
+        private boolean remapped;
+
+        private MethodRemapper(@Nullable MethodVisitor methodVisitor, @NotNull MethodNode method) {
+            super(StreamingMixinRemapper.this.api, methodVisitor);
+            this.method = method;
+        }
+
+        private void remap() {
+            if (this.remapped) {
+                return;
+            }
+            this.remapped = true;
+            StreamingMixinRemapper.this.remapMethod(this.method);
+            if (this.method.visibleAnnotations != null) {
+                for (AnnotationNode annotation : this.method.visibleAnnotations) {
+                    annotation.accept(super.visitAnnotation(annotation.desc, true));
+                }
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            if (!visible) {
+                return super.visitAnnotation(descriptor, visible);
+            }
+            AnnotationNode annotation = new AnnotationNode(this.api, descriptor);
+            if (this.method.visibleAnnotations == null) {
+                this.method.visibleAnnotations = new ArrayList<>();
+            }
+            this.method.visibleAnnotations.add(annotation);
+            return annotation;
+        }
+
+        @Override
+        public void visitCode() {
+            this.remap();
+            super.visitCode();
+        }
+
+        @Override
+        public void visitEnd() {
+            this.remap();
+            super.visitEnd();
+        }
+    }
+
+    private boolean classAnnotationsRemapped;
+    @NotNull
+    private final ClassNode node = new ClassNode();
+    @Nullable
+    private DependencyRecorder recorder;
+    @NotNull
+    private final MicromixinRemapper remapper;
+    @NotNull
+    private final MappingSink sink;
+    @Nullable
+    private Set<@NotNull String> targets;
+
+    StreamingMixinRemapper(@NotNull MicromixinRemapper remapper, @NotNull MappingSink sink, @Nullable ClassVisitor classVisitor) {
+        super(Opcodes.ASM9, classVisitor);
+        this.remapper = remapper;
+        this.sink = sink;
+    }
+
+    private void remapClassAnnotations() {
+        if (this.classAnnotationsRemapped) {
+            return;
+        }
+        this.classAnnotationsRemapped = true;
+
+        DependencyRecorder recorder = this.recorder;
+        if (recorder != null) {
+            recorder.activate();
+        }
+        try {
+            this.targets = this.remapper.remapClassAnnotations(this.node);
+        } catch (IllegalMixinException | MissingFeatureException e) {
+            throw new Failure(e);
+        } finally {
+            if (recorder != null) {
+                recorder.deactivate();
+            }
+        }
+
+        if (this.node.invisibleAnnotations != null) {
+            for (AnnotationNode annotation : this.node.invisibleAnnotations) {
+                annotation.accept(super.visitAnnotation(annotation.desc, false));
+            }
+        }
+    }
+
+    private void remapField(@NotNull FieldNode field, @NotNull Set<@NotNull String> targets) {
+        DependencyRecorder recorder = this.recorder;
+        if (recorder != null) {
+            recorder.activate();
+        }
+        try {
+            this.remapper.remapField(this.node, field, targets, this.sink);
+        } catch (IllegalMixinException | MissingFeatureException e) {
+            throw new Failure(e);
+        } finally {
+            if (recorder != null) {
+                recorder.deactivate();
+            }
+        }
+    }
+
+    private void remapMethod(@NotNull MethodNode method) {
+        Set<@NotNull String> targets = this.targets;
+        if (targets == null) {
+            return;
+        }
+        DependencyRecorder recorder = this.recorder;
+        if (recorder != null) {
+            recorder.activate();
+        }
+        try {
+            this.remapper.remapMethod(this.node, method, targets, this.sink);
+        } catch (IllegalMixinException | MissingFeatureException e) {
+            throw new Failure(e);
+        } finally {
+            if (recorder != null) {
+                recorder.deactivate();
+            }
+        }
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        this.node.visit(version, access, name, signature, superName, interfaces);
+        if (this.remapper.getDependencyIndex() != null) {
+            this.recorder = new DependencyRecorder();
+        }
+        super.visit(version, access, name, signature, superName, interfaces);
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        if (visible) {
+            return super.visitAnnotation(descriptor, visible);
+        }
+        AnnotationNode annotation = new AnnotationNode(this.api, descriptor);
+        if (this.node.invisibleAnnotations == null) {
+            this.node.invisibleAnnotations = new ArrayList<>();
+        }
+        this.node.invisibleAnnotations.add(annotation);
+        return annotation;
+    }
+
+    @Override
+    public void visitEnd() {
+        this.remapClassAnnotations();
+        Set<@NotNull String> targets = this.targets;
+        if (targets != null) {
+            for (FieldNode field : this.node.fields) {
+                this.remapField(field, targets);
+                if (this.cv != null) {
+                    field.accept(this.cv);
+                }
+            }
+        }
+
+        MixinDependencyIndex dependencyIndex = this.remapper.getDependencyIndex();
+        DependencyRecorder recorder = this.recorder;
+        if (dependencyIndex != null && recorder != null) {
+            dependencyIndex.record(this.node, recorder);
+        }
+        super.visitEnd();
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+        this.remapClassAnnotations();
+        if (this.targets == null) {
+            return super.visitField(access, name, descriptor, signature, value);
+        }
+        // The field is added to the class as a stub, it's annotations are remapped once all methods were visited
+        FieldNode field = new FieldNode(this.api, access, name, descriptor, signature, value);
+        this.node.fields.add(field);
+        return field;
+    }
+
+    @Override
+    public void visitInnerClass(String name, String outerName, String innerName, int access) {
+        this.remapClassAnnotations();
+        super.visitInnerClass(name, outerName, innerName, access);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        this.remapClassAnnotations();
+        MethodVisitor methodVisitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+        if (this.targets == null) {
+            return methodVisitor;
+        }
+        // The method is added to the class as a stub without code, as the code is passed on directly
+        MethodNode method = new MethodNode(this.api, access, name, descriptor, signature, exceptions);
+        this.node.methods.add(method);
+        return new MethodRemapper(methodVisitor, method);
+    }
+
+    @Override
+    public void visitNestMember(String nestMember) {
+        this.remapClassAnnotations();
+        super.visitNestMember(nestMember);
+    }
+
+    @Override
+    public void visitPermittedSubclass(String permittedSubclass) {
+        this.remapClassAnnotations();
+        super.visitPermittedSubclass(permittedSubclass);
+    }
+
+    @Override
+    public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature) {
+        this.remapClassAnnotations();
+        return super.visitRecordComponent(name, descriptor, signature);
+    }
+}
@@ -0,0 +1,34 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Access to unix domain sockets, which are only supported by the JDK starting with Java 16.
+ * This is the variant used on older versions of Java, the multi-release jar contains the variant
+ * for Java 16 and newer.
+ */
+final class UnixDomainSockets {
+
+    @NotNull
+    static ServerSocketChannel bind(@NotNull Path path) throws IOException {
+        throw new IOException("Unix domain sockets require Java 16 or newer");
+    }
+
+    @NotNull
+    static SocketChannel connect(@NotNull Path path) throws IOException {
+        throw new IOException("Unable to connect to " + path + ": Unix domain sockets require Java 16 or newer");
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    private UnixDomainSockets() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -15,7 +15,7 @@ public class AtArrayElementRemapper implements AnnotationElementRemapper<List<An
     @Override
     @NotNull
     public List<AnnotationNode> remapNode(@NotNull RemapContext ctx, @NotNull List<AnnotationNode> originalValue) throws MissingFeatureException, IllegalMixinException {
-        ctx.remapper.remapAtArray(ctx.mixinClassName, ctx.mixinMethod.name + ctx.mixinMethod.desc, ctx.targets, originalValue);
+        ctx.remapper.remapAtArray(ctx, originalValue);
         return originalValue;
     }
 }
@@ -13,7 +13,7 @@ public class AtElementRemapper implements AnnotationElementRemapper<AnnotationNo
     @Override
     @NotNull
     public AnnotationNode remapNode(@NotNull RemapContext ctx, @NotNull AnnotationNode originalValue) throws MissingFeatureException, IllegalMixinException {
-        ctx.remapper.remapAt(ctx.mixinClassName, ctx.mixinMethod.name + ctx.mixinMethod.desc, -1, ctx.targets, originalValue);
+        ctx.remapper.remapAt(ctx, -1, originalValue);
         return originalValue;
     }
 }
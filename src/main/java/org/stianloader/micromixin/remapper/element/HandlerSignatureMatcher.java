@@ -0,0 +1,106 @@
+package org.stianloader.micromixin.remapper.element;
+
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.micromixin.remapper.MicromixinRemapper;
+
+/**
+ * Predicate matching the descriptors of methods that can be targeted by a handler method. The signature of
+ * the handler is compiled once into a descriptor prefix, so that testing a candidate descriptor only needs to
+ * compare the candidate against the prefix and does not allocate.
+ *
+ * <p>As descriptors are prefix-free, the arguments captured by the handler (that is all arguments before the
+ * callback info argument) match the leading arguments of a candidate method exactly if the descriptor of the
+ * candidate starts with the opening parenthesis followed by the descriptors of the captured arguments.
+ *
+ * <p>Two matchers compiled from signatures that capture the same arguments and expect the same kind of return type
+ * are equal, which allows selector resolutions to be cached across handlers sharing the same signature.
+ */
+final class HandlerSignatureMatcher implements Predicate<@NotNull String> {
+
+    /**
+     * Matcher matching any method descriptor.
+     */
+    @NotNull
+    static final HandlerSignatureMatcher ANY_METHOD = new HandlerSignatureMatcher("(", false, false);
+
+    @NotNull
+    private static final String CALLBACK_INFO_DESC = "L" + MicromixinRemapper.CALLBACK_INFO_CLASS + ";";
+
+    @NotNull
+    private static final String CALLBACK_INFO_RETURNABLE_DESC = "L" + MicromixinRemapper.CALLBACK_INFO_RETURNABLE_CLASS + ";";
+
+    /**
+     * Compile the descriptor of an injector handler (that is a handler taking a <code>CallbackInfo</code> or
+     * <code>CallbackInfoReturnable</code> argument) into a matcher. The matcher matches all method descriptors
+     * that start with the arguments declared before the first callback info argument. If the callback info
+     * argument is a <code>CallbackInfo</code>, the matched methods must return void, otherwise they must not.
+     *
+     * @param handlerDesc The descriptor of the handler method.
+     * @return The compiled matcher, or null if the handler lacks a callback info argument.
+     */
+    @Nullable
+    static HandlerSignatureMatcher compileInjector(@NotNull String handlerDesc) {
+        int argumentStart = 1;
+        while (argumentStart < handlerDesc.length() && handlerDesc.charAt(argumentStart) != ')') {
+            int argumentEnd = HandlerSignatureMatcher.skipType(handlerDesc, argumentStart);
+            boolean expectVoid = HandlerSignatureMatcher.regionEquals(handlerDesc, argumentStart, argumentEnd, HandlerSignatureMatcher.CALLBACK_INFO_DESC);
+            if (expectVoid || HandlerSignatureMatcher.regionEquals(handlerDesc, argumentStart, argumentEnd, HandlerSignatureMatcher.CALLBACK_INFO_RETURNABLE_DESC)) {
+                return new HandlerSignatureMatcher(handlerDesc.substring(0, argumentStart), true, expectVoid);
+            }
+            argumentStart = argumentEnd;
+        }
+        return null;
+    }
+
+    private static boolean regionEquals(@NotNull String desc, int start, int end, @NotNull String expected) {
+        return end - start == expected.length() && desc.regionMatches(start, expected, 0, expected.length());
+    }
+
+    private static int skipType(@NotNull String desc, int start) {
+        while (desc.charAt(start) == '[') {
+            start++;
+        }
+        if (desc.charAt(start) == 'L') {
+            return desc.indexOf(';', start) + 1;
+        }
+        return start + 1;
+    }
+
+    @NotNull
+    private final String argumentPrefix;
+    private final boolean checkReturnType;
+    private final boolean expectVoid;
+
+    private HandlerSignatureMatcher(@NotNull String argumentPrefix, boolean checkReturnType, boolean expectVoid) {
+        this.argumentPrefix = argumentPrefix;
+        this.checkReturnType = checkReturnType;
+        this.expectVoid = expectVoid;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof HandlerSignatureMatcher)) {
+            return false;
+        }
+        HandlerSignatureMatcher other = (HandlerSignatureMatcher) obj;
+        return this.checkReturnType == other.checkReturnType
+                && this.expectVoid == other.expectVoid
+                && this.argumentPrefix.equals(other.argumentPrefix);
+    }
+
+    @Override
+    public int hashCode() {
+        return (this.argumentPrefix.hashCode() * 31 + Boolean.hashCode(this.checkReturnType)) * 31 + Boolean.hashCode(this.expectVoid);
+    }
+
+    @Override
+    public boolean test(@NotNull String inferredDescriptor) {
+        if (this.checkReturnType && this.expectVoid != (inferredDescriptor.charAt(inferredDescriptor.length() - 1) == 'V')) {
+            return false;
+        }
+        return inferredDescriptor.startsWith(this.argumentPrefix);
+    }
+}
@@ -14,9 +14,7 @@ public class SimpleListTargetElementRemapper implements AnnotationElementRemappe
     @Override
     @NotNull
     public List<?> remapNode(@NotNull RemapContext ctx, @NotNull List<?> originalValue) throws MissingFeatureException, IllegalMixinException {
-        ctx.remapper.remapMethodSelectorList(originalValue, ctx.mixinClassName, ctx.mixinMethod, ctx.targets, (inferredDescriptor) -> {
-            return inferredDescriptor.codePointAt(0) == '(';
-        });
+        ctx.remapper.remapMethodSelectorList(ctx, originalValue, HandlerSignatureMatcher.ANY_METHOD);
         return originalValue;
     }
 }
@@ -1,6 +1,6 @@
 package org.stianloader.micromixin.remapper.element;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jetbrains.annotations.NotNull;
@@ -15,10 +15,8 @@ public class SimpleSingleTargetElementRemapper implements AnnotationElementRemap
     @Override
     @NotNull
     public Object remapNode(@NotNull RemapContext ctx, @NotNull Object originalValue) throws MissingFeatureException, IllegalMixinException {
-        List<@NotNull Object> wrappedValue = Collections.singletonList(originalValue);
-        ctx.remapper.remapMethodSelectorList(wrappedValue, ctx.mixinClassName, ctx.mixinMethod, ctx.targets, (inferredDescriptor) -> {
-            return inferredDescriptor.codePointAt(0) == '(';
-        });
+        List<@NotNull Object> wrappedValue = Arrays.asList(originalValue);
+        ctx.remapper.remapMethodSelectorList(ctx, wrappedValue, HandlerSignatureMatcher.ANY_METHOD);
         return wrappedValue.get(0);
     }
 }
@@ -17,7 +17,7 @@ public class SliceArrayElementRemapper implements AnnotationElementRemapper<List
     public List<AnnotationNode> remapNode(@NotNull RemapContext ctx, @NotNull List<AnnotationNode> originalValue) throws MissingFeatureException, IllegalMixinException {
         int ordinal = 0;
         for (AnnotationNode slice : originalValue) {
-            ctx.remapper.remapSlice(ctx.mixinClassName, ctx.mixinMethod.name + ctx.mixinMethod.desc, ordinal++, ctx.targets, slice);
+            ctx.remapper.remapSlice(ctx, ordinal++, slice);
         }
         return originalValue;
     }
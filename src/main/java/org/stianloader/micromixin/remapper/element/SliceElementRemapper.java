@@ -13,7 +13,7 @@ public class SliceElementRemapper implements AnnotationElementRemapper<Annotatio
     @Override
     @NotNull
     public AnnotationNode remapNode(@NotNull RemapContext ctx, @NotNull AnnotationNode originalValue) throws MissingFeatureException, IllegalMixinException {
-        ctx.remapper.remapSlice(ctx.mixinClassName, ctx.mixinMethod.name + ctx.mixinMethod.desc, -1, ctx.targets, originalValue);
+        ctx.remapper.remapSlice(ctx, -1, originalValue);
         return originalValue;
     }
 }
@@ -1,6 +1,7 @@
 package org.stianloader.micromixin.remapper.selectors;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -9,5 +10,5 @@ import org.stianloader.remapper.MappingLookup;
 
 public interface AtSelector {
     boolean isMatchingFields();
-    void remapArgs(@NotNull String errorPrefix, @Nullable List<String> args, @NotNull MappingLookup lookup) throws IllegalMixinException;
+    void remapArgs(@NotNull Supplier<@NotNull String> errorPrefix, @Nullable List<String> args, @NotNull MappingLookup lookup) throws IllegalMixinException;
 }
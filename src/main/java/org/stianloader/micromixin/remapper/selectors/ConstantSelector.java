@@ -2,6 +2,7 @@ package org.stianloader.micromixin.remapper.selectors;
 
 import java.util.List;
 import java.util.ListIterator;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -23,9 +24,9 @@ public class ConstantSelector implements AtSelector {
     }
 
     @Override
-    public void remapArgs(@NotNull String errorPrefix, @Nullable List<String> args, @NotNull MappingLookup lookup) throws IllegalMixinException {
+    public void remapArgs(@NotNull Supplier<@NotNull String> errorPrefix, @Nullable List<String> args, @NotNull MappingLookup lookup) throws IllegalMixinException {
         if (args == null) {
-            throw new IllegalMixinException(errorPrefix + "The CONSTANT @At injection point selector requires an args argument, but the discriminator was not specified. Following approaches towards resolving the issue exist:\n"
+            throw new IllegalMixinException(errorPrefix.get() + "The CONSTANT @At injection point selector requires an args argument, but the discriminator was not specified. Following approaches towards resolving the issue exist:\n"
                     + "\t1. Specify the 'args' element in the @At annotation.\n"
                     + "\t2. Report this as a bug to micromixin-remapper and micromixin-transformer, and attach why you would expect for the behaviour to differ from the current implementation.");
         }
@@ -39,7 +40,7 @@ public class ConstantSelector implements AtSelector {
                 continue;
             }
             if (matchedOne) {
-                throw new IllegalMixinException(errorPrefix + "The CONSTANT @At injection point selector requires a single args argument, but the discriminator specifies multiple of them. Following approaches towards resolving the issue exist:\n"
+                throw new IllegalMixinException(errorPrefix.get() + "The CONSTANT @At injection point selector requires a single args argument, but the discriminator specifies multiple of them. Following approaches towards resolving the issue exist:\n"
                         + "\t1. Specify a single 'args' element in the @At annotation (or rather said define it as an array with a single element).\n"
                         + "\t2. Report this as a bug to micromixin-remapper and micromixin-transformer, and attach why you would expect for the behaviour to differ from the current implementation.");
             }
@@ -58,11 +59,11 @@ public class ConstantSelector implements AtSelector {
                     continue;
                 }
                 if (value.indexOf('.') != -1) {
-                    throw new IllegalMixinException(errorPrefix + "Illegal class descriptor for CONSTANT @At injection point argument. A class descriptor is formatted as follows: L<internalName>;. Note that internal name packages are separated using forward slashes ('/') and not dots ('.')");
+                    throw new IllegalMixinException(errorPrefix.get() + "Illegal class descriptor for CONSTANT @At injection point argument. A class descriptor is formatted as follows: L<internalName>;. Note that internal name packages are separated using forward slashes ('/') and not dots ('.')");
                 }
                 if (value.codePointBefore(value.length()) == ';') {
                     if (value.codePointAt(0) != 'L') {
-                        throw new IllegalMixinException(errorPrefix + "Illegal class descriptor for CONSTANT @At injection point argument. A class descriptor is formatted as follows: L<internalName>;.");
+                        throw new IllegalMixinException(errorPrefix.get() + "Illegal class descriptor for CONSTANT @At injection point argument. A class descriptor is formatted as follows: L<internalName>;.");
                     }
                     String mapped = lookup.getRemappedClassNameFast(value.substring(1, value.length() - 1));
                     if (mapped != null) {
@@ -72,12 +73,12 @@ public class ConstantSelector implements AtSelector {
                     itr.set(lookup.getRemappedClassName(value));
                 }
             } else {
-                throw new IllegalMixinException(errorPrefix + "Unknown CONSTANT @At injection point key: '" + key + "'. Note: Whitespaces are not allowed between either side of the equals.");
+                throw new IllegalMixinException(errorPrefix.get() + "Unknown CONSTANT @At injection point key: '" + key + "'. Note: Whitespaces are not allowed between either side of the equals.");
             }
         }
 
         if (!matchedOne) {
-            throw new IllegalMixinException(errorPrefix + "Cannot find any constant values in @At(\"CONSTANT\") args. An example would be @At(value = \"CONSTANT\", args = {\"intValue=5\"}). Note: Whitespaces are not allowed between either side of the equals.");
+            throw new IllegalMixinException(errorPrefix.get() + "Cannot find any constant values in @At(\"CONSTANT\") args. An example would be @At(value = \"CONSTANT\", args = {\"intValue=5\"}). Note: Whitespaces are not allowed between either side of the equals.");
         }
     }
 }
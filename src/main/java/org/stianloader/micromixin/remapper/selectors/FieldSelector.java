@@ -1,6 +1,7 @@
 package org.stianloader.micromixin.remapper.selectors;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -22,9 +23,9 @@ public class FieldSelector implements AtSelector {
     }
 
     @Override
-    public void remapArgs(@NotNull String errorPrefix, @Nullable List<String> args, @NotNull MappingLookup lookup) throws IllegalMixinException {
+    public void remapArgs(@NotNull Supplier<@NotNull String> errorPrefix, @Nullable List<String> args, @NotNull MappingLookup lookup) throws IllegalMixinException {
         if (args != null) {
-            throw new IllegalMixinException(errorPrefix + "The FIELD @At injection point selector does not expect an args argument, but the redundant discriminator was specified. Following approaches towards resolving the issue exist:\n"
+            throw new IllegalMixinException(errorPrefix.get() + "The FIELD @At injection point selector does not expect an args argument, but the redundant discriminator was specified. Following approaches towards resolving the issue exist:\n"
                     + "\t1. Drop the 'args' element in the @At annotation.\n"
                     + "\t2. Report this as a bug to micromixin-remapper and micromixin-transformer, and attach why you would expect for the behaviour to differ from the current implementation.");
         }
@@ -0,0 +1,42 @@
+package org.stianloader.micromixin.remapper;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Access to unix domain sockets, which are only supported by the JDK starting with Java 16.
+ * This is the variant used on Java 16 and newer.
+ */
+final class UnixDomainSockets {
+
+    @NotNull
+    static ServerSocketChannel bind(@NotNull Path path) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.bind(UnixDomainSocketAddress.of(path));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    @NotNull
+    static SocketChannel connect(@NotNull Path path) throws IOException {
+        return SocketChannel.open(UnixDomainSocketAddress.of(path));
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    private UnixDomainSockets() {
+        throw new UnsupportedOperationException();
+    }
+}